@@ -0,0 +1,62 @@
+package org.diro.dirosnake.bench;
+
+import org.diro.dirosnake.ai.ArenaGreedyPolicy;
+import org.diro.dirosnake.core.ArenaGame;
+
+import java.util.Arrays;
+
+/**
+ * Temps d'un tick d'arène selon le nombre de S.N.A.K.E. et la taille du plateau, avec la politique gloutonne
+ * pour tous. Une image à 60 FPS dispose de 16,7 ms : le tick doit n'en prendre qu'une petite partie.
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.ArenaBenchmark
+ */
+public class ArenaBenchmark {
+
+    private static final int[][] SCENARIOS = {{64, 128}, {64, 1000}, {256, 1000}, {1024, 1000}};
+    private static final int WARMUP_TICKS = 2_000;
+    private static final int TICKS = 10_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%7s %10s %10s %10s %10s %8s %12s%n",
+                "snakes", "board", "mean (us)", "p99 (us)", "max (us)", "alive", "total length");
+
+        for (int[] scenario : SCENARIOS) {
+            run(scenario[0], scenario[1]);
+        }
+    }
+
+    private static void run(int snakes, int size) {
+        ArenaGame arena = new ArenaGame(size, size, snakes, Math.max(1, snakes / 2), 7L);
+        ArenaGreedyPolicy policy = new ArenaGreedyPolicy();
+        for (int i = 0; i < snakes; i++) {
+            arena.setPolicy(i, policy);
+        }
+        arena.reset(7L);
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            arena.tick();
+        }
+
+        long[] samples = new long[TICKS];
+        for (int i = 0; i < TICKS; i++) {
+            long start = System.nanoTime();
+            arena.tick();
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        long total = 0;
+        for (long sample : samples) {
+            total += sample;
+        }
+        long length = 0;
+        for (int i = 0; i < snakes; i++) {
+            length += arena.getBody(i).size();
+        }
+        System.out.printf("%7d %10s %10.2f %10.2f %10.2f %8d %12d%n",
+                snakes, size + "x" + size, total / 1e3 / TICKS,
+                samples[(int) (TICKS * 0.99)] / 1e3, samples[TICKS - 1] / 1e3,
+                arena.getAliveCount(), length);
+    }
+}
@@ -0,0 +1,93 @@
+package org.diro.dirosnake.bench;
+
+import com.almasb.fxgl.app.GameApplication;
+import com.almasb.fxgl.app.GameSettings;
+import com.almasb.fxgl.dsl.FXGL;
+import org.diro.dirosnake.BackgroundMode;
+import org.diro.dirosnake.Constants;
+import org.diro.dirosnake.metrics.MetricsSample;
+import org.diro.dirosnake.metrics.PerformanceMonitor;
+import org.diro.dirosnake.system.SnakeEnvironment;
+
+/**
+ * Compare les deux modes d'arrière-plan (une entité par case, ou une seule image) pour plusieurs tailles de
+ * case : nombre d'entités, temps de construction et durée réelle des images. Comme pour {@link RenderBenchmark},
+ * la cadence n'est pas limitée par l'écran : une image coûte la mise à jour du monde, la synchronisation de la
+ * scène et le parcours du graphe de scène au rendu, qui dépend du nombre de noeuds. Il faut une fenêtre.
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.BackgroundBenchmark
+ */
+public class BackgroundBenchmark extends GameApplication {
+
+    private static final int[] GRID_SCALES = {50, 20, 10, 5};
+    private static final BackgroundMode[] MODES = BackgroundMode.values();
+    private static final double WARMUP_SECONDS = 2;
+    private static final double MEASURE_SECONDS = 5;
+
+    private final PerformanceMonitor monitor = new PerformanceMonitor(1 << 16);
+    private final MetricsSample sample = new MetricsSample();
+    private int config = 0;
+    private double buildMillis;
+    private double elapsed;
+    private boolean measuring;
+
+    @Override
+    protected void initSettings(GameSettings settings) {
+        settings.setWidth(Constants.WIDTH);
+        settings.setHeight(Constants.HEIGHT);
+        settings.setTitle("S.N.A.K.E background benchmark");
+        settings.setMainMenuEnabled(false);
+        settings.setGameMenuEnabled(false);
+    }
+
+    @Override
+    protected void initGame() {
+        SnakeEnvironment environment = new SnakeEnvironment(MODES[config % MODES.length],
+                Constants.WIDTH, Constants.HEIGHT, GRID_SCALES[config / MODES.length]);
+
+        long start = System.nanoTime();
+        environment.createBackground();
+        buildMillis = (System.nanoTime() - start) / 1e6;
+
+        elapsed = 0;
+        measuring = false;
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        if (measuring) {
+            monitor.frame(System.nanoTime());
+        }
+
+        elapsed += tpf;
+        if (!measuring && elapsed >= WARMUP_SECONDS) {
+            monitor.reset();
+            measuring = true;
+        } else if (measuring && elapsed >= WARMUP_SECONDS + MEASURE_SECONDS) {
+            report();
+            config++;
+            if (config == GRID_SCALES.length * MODES.length) {
+                FXGL.getGameController().exit();
+            } else {
+                FXGL.getGameController().startNewGame();
+            }
+        }
+    }
+
+    private void report() {
+        monitor.sample(sample, FXGL.getGameWorld().getEntities().size(), 0);
+        System.out.printf("%-8s %6d %9d %12.2f %8.1f %9.2f %9.2f %9.2f%n",
+                MODES[config % MODES.length], GRID_SCALES[config / MODES.length], sample.entities, buildMillis,
+                sample.fps, sample.frameP50Millis, sample.frameP99Millis, sample.frameMaxMillis);
+    }
+
+    public static void main(String[] args) {
+        // Images aussi vite que possible : sans synchronisation verticale ni limite à 60 images par seconde.
+        System.setProperty("javafx.animation.fullspeed", "true");
+        System.setProperty("prism.vsync", "false");
+
+        System.out.printf("%-8s %6s %9s %12s %8s %9s %9s %9s%n",
+                "mode", "scale", "entities", "build (ms)", "fps", "p50 (ms)", "p99 (ms)", "max (ms)");
+        launch(args);
+    }
+}
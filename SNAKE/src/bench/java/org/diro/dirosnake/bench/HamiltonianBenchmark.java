@@ -0,0 +1,55 @@
+package org.diro.dirosnake.bench;
+
+import org.diro.dirosnake.ai.HamiltonianPolicy;
+import org.diro.dirosnake.core.SnakeGame;
+
+/**
+ * Mesure la construction du cycle hamiltonien et le temps d'une décision selon la taille du plateau. Les
+ * petits plateaux sont joués jusqu'au bout, ce qui exerce le tick avec un corps qui couvre tout le plateau.
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.HamiltonianBenchmark
+ */
+public class HamiltonianBenchmark {
+
+    private static final int[] GRID_SIZES = {16, 64, 256, 1024};
+    private static final long MAX_TICKS = 5_000_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %12s %14s %14s %12s %10s%n",
+                "grid", "build (ms)", "decide (ns)", "max (us)", "ticks", "length");
+
+        for (int size : GRID_SIZES) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        SnakeGame game = new SnakeGame(size, size, 0L);
+        game.reset(0L);
+        HamiltonianPolicy policy = new HamiltonianPolicy();
+
+        // La première décision construit le cycle.
+        long start = System.nanoTime();
+        game.setDirection(policy.decide(game));
+        double buildMs = (System.nanoTime() - start) / 1e6;
+        game.tick();
+
+        long total = 0;
+        long max = 0;
+        long ticks = 0;
+        while (!game.isOver() && ticks < MAX_TICKS) {
+            start = System.nanoTime();
+            game.setDirection(policy.decide(game));
+            long elapsed = System.nanoTime() - start;
+            game.tick();
+
+            total += elapsed;
+            max = Math.max(max, elapsed);
+            ticks++;
+        }
+
+        System.out.printf("%-10s %12.3f %14.1f %14.2f %12d %10d  %s%n",
+                size + "x" + size, buildMs, (double) total / ticks, max / 1e3, ticks,
+                game.getBody().size(), game.getOutcome());
+    }
+}
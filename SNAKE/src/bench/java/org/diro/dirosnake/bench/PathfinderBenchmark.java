@@ -0,0 +1,66 @@
+package org.diro.dirosnake.bench;
+
+import org.diro.dirosnake.ai.PathfinderPolicy;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.util.Arrays;
+
+/**
+ * Mesure le temps d'une décision du pilote automatique selon la taille du plateau. Chaque décision est
+ * chronométrée pendant des parties complètes, donc avec des S.N.A.K.E. de toutes les longueurs.
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.PathfinderBenchmark
+ */
+public class PathfinderBenchmark {
+
+    private static final int[] GRID_SIZES = {16, 32, 100, 200};
+    private static final int DECISIONS = 200_000;
+    private static final int WARMUP_DECISIONS = 50_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%-9s %10s %10s %10s %10s %10s%n",
+                "grid", "mean (us)", "p50 (us)", "p99 (us)", "max (us)", "length");
+
+        for (int size : GRID_SIZES) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        SnakeGame game = new SnakeGame(size, size, 0L);
+        PathfinderPolicy policy = new PathfinderPolicy();
+        long[] samples = new long[DECISIONS];
+        long seed = 0;
+        long totalLength = 0;
+
+        game.reset(seed++);
+        for (int i = -WARMUP_DECISIONS; i < DECISIONS; i++) {
+            if (game.isOver()) {
+                game.reset(seed++);
+            }
+
+            long start = System.nanoTime();
+            game.setDirection(policy.decide(game));
+            long elapsed = System.nanoTime() - start;
+            game.tick();
+
+            if (i >= 0) {
+                samples[i] = elapsed;
+                totalLength += game.getBody().size();
+            }
+        }
+
+        Arrays.sort(samples);
+        long total = 0;
+        for (long sample : samples) {
+            total += sample;
+        }
+        System.out.printf("%-9s %10.2f %10.2f %10.2f %10.2f %10d%n",
+                size + "x" + size,
+                total / 1e3 / DECISIONS,
+                samples[DECISIONS / 2] / 1e3,
+                samples[(int) (DECISIONS * 0.99)] / 1e3,
+                samples[DECISIONS - 1] / 1e3,
+                totalLength / DECISIONS);
+    }
+}
@@ -0,0 +1,166 @@
+package org.diro.dirosnake.bench;
+
+import com.almasb.fxgl.app.GameApplication;
+import com.almasb.fxgl.app.GameSettings;
+import com.almasb.fxgl.dsl.FXGL;
+import org.diro.dirosnake.AssetCache;
+import org.diro.dirosnake.BodyRenderMode;
+import org.diro.dirosnake.Constants;
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.ai.HamiltonianPolicy;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.metrics.MetricsSample;
+import org.diro.dirosnake.metrics.PerformanceMonitor;
+import org.diro.dirosnake.system.SnakeEnvironment;
+import org.diro.dirosnake.system.SnakeView;
+
+/**
+ * Compare les deux modes de rendu du corps (une entité par segment visible, ou un canevas peint depuis l'atlas)
+ * avec un S.N.A.K.E. de 1 000 puis 10 000 segments qui suit un cycle hamiltonien. Le S.N.A.K.E. avance à
+ * chaque image, pire cas pour les deux modes. La cadence n'est pas limitée par l'écran : la durée d'une image
+ * est son coût réel (mise à jour, synchronisation de la scène et rendu). Il faut une fenêtre.
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.RenderBenchmark [-Dexec.args="1000 10000"]
+ */
+public class RenderBenchmark extends GameApplication {
+
+    private static final double WARMUP_SECONDS = 3;
+    private static final double MEASURE_SECONDS = 10;
+    private static final BodyRenderMode[] MODES = BodyRenderMode.values();
+
+    private static int[] segments = {1_000, 10_000};
+
+    private final PerformanceMonitor monitor = new PerformanceMonitor(1 << 16);
+    private final MetricsSample sample = new MetricsSample();
+    private int config = 0;
+    private SnakeGame game;
+    private HamiltonianPolicy policy;
+    private SnakeView view;
+    private SnakeEnvironment environment;
+    private double elapsed;
+    private boolean measuring;
+    private long drawnCells;
+    private long frames;
+
+    @Override
+    protected void initSettings(GameSettings settings) {
+        settings.setWidth(Constants.WIDTH);
+        settings.setHeight(Constants.HEIGHT);
+        settings.setTitle("S.N.A.K.E render benchmark");
+        settings.setMainMenuEnabled(false);
+        settings.setGameMenuEnabled(false);
+    }
+
+    @Override
+    protected void onPreInit() {
+        AssetCache.preload();
+    }
+
+    @Override
+    protected void initGame() {
+        int length = segments[config / MODES.length];
+        int side = boardSide(length);
+        game = new SnakeGame(side, side, 7L);
+        game.reset(7L);
+        policy = new HamiltonianPolicy();
+
+        // La première décision construit le cycle, que le S.N.A.K.E. suit ensuite sans raccourci pour grandir.
+        game.setDirection(policy.decide(game));
+        for (int i = 1; i < length; i++) {
+            game.getBody().grow();
+        }
+        while (game.getBody().size() < length && !game.isOver()) {
+            step();
+        }
+
+        environment = new SnakeEnvironment(Constants.BACKGROUND_MODE, Constants.WIDTH, Constants.HEIGHT,
+                Constants.GRID_SCALE, side, side);
+        environment.createBackground();
+        view = new SnakeView(MODES[config % MODES.length]);
+        view.build(game);
+
+        elapsed = 0;
+        measuring = false;
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        if (measuring) {
+            monitor.frame(System.nanoTime());
+        }
+
+        step();
+        view.sync(game);
+        view.render(game, 1.0);
+        environment.follow(view.getCamera());
+        drawnCells += view.getDrawnCellCount();
+        frames++;
+
+        elapsed += tpf;
+        if (!measuring && elapsed >= WARMUP_SECONDS) {
+            monitor.reset();
+            drawnCells = 0;
+            frames = 0;
+            measuring = true;
+        } else if (measuring && elapsed >= WARMUP_SECONDS + MEASURE_SECONDS) {
+            report();
+            config++;
+            if (config == segments.length * MODES.length) {
+                FXGL.getGameController().exit();
+            } else {
+                FXGL.getGameController().startNewGame();
+            }
+        }
+    }
+
+    private void step() {
+        game.setDirection(alongCycle());
+        game.tick();
+    }
+
+    /** Voisin suivant de la tête sur le cycle hamiltonien. */
+    private Directions alongCycle() {
+        int cols = game.getCols();
+        int col = game.getBody().getHeadCol();
+        int row = game.getBody().getHeadRow();
+        int next = (policy.getOrder(row * cols + col) + 1) % (cols * game.getRows());
+        for (Directions direction : Directions.values()) {
+            int c = col + direction.dx();
+            int r = row + direction.dy();
+            if (c >= 0 && r >= 0 && c < cols && r < game.getRows() && policy.getOrder(r * cols + c) == next) {
+                return direction;
+            }
+        }
+        return game.getDirection();
+    }
+
+    private void report() {
+        monitor.sample(sample, FXGL.getGameWorld().getEntities().size(), game.getBody().size());
+        System.out.printf("%-9s %9d %9d %8.1f %9.2f %9.2f %9.2f %7.1f %12.2f%n",
+                MODES[config % MODES.length], sample.snakeLength, sample.entities, sample.fps,
+                sample.frameP50Millis, sample.frameP99Millis, sample.frameMaxMillis, sample.cpuPercent,
+                frames == 0 ? 0 : (double) drawnCells / frames);
+    }
+
+    /** Côté pair (exigé par le cycle) d'un plateau à moitié rempli par "length" segments, au moins la fenêtre. */
+    private static int boardSide(int length) {
+        int side = Math.max(Constants.WIDTH / Constants.GRID_SCALE, (int) Math.ceil(Math.sqrt(2.0 * length)));
+        return side + side % 2;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            segments = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                segments[i] = Integer.parseInt(args[i]);
+            }
+        }
+        // Images aussi vite que possible : sans synchronisation verticale ni limite à 60 images par seconde.
+        System.setProperty("javafx.animation.fullspeed", "true");
+        System.setProperty("prism.vsync", "false");
+
+        System.out.printf("%-9s %9s %9s %8s %9s %9s %9s %7s %12s%n",
+                "mode", "segments", "entities", "fps", "p50 (ms)", "p99 (ms)", "max (ms)", "cpu %", "cells/frame");
+        launch(args);
+    }
+}
@@ -0,0 +1,73 @@
+package org.diro.dirosnake.bench;
+
+import org.diro.dirosnake.scores.GameRecord;
+import org.diro.dirosnake.scores.ScoreStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+
+/**
+ * Remplit un magasin de scores temporaire avec un mois de parties de borne d'arcade, puis mesure l'ajout et
+ * les requêtes du tableau des meilleurs scores (top 10, centile, rang, statistiques d'un jour).
+ *
+ * mvn -Pbench compile exec:java -Dexec.mainClass=org.diro.dirosnake.bench.ScoreStoreBenchmark -Dexec.args="1000000"
+ */
+public class ScoreStoreBenchmark {
+
+    private static final int QUERIES = 2_000;
+    private static final long MONTH_MILLIS = 30L * 24 * 3600 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path directory = Files.createTempDirectory("snake-scores");
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now(zone).minusDays(30);
+        long start = firstDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        Random random = new Random(7L);
+
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                int score = (int) Math.abs(random.nextGaussian() * 40);
+                store.append(new GameRecord(start + i * (MONTH_MILLIS / games), score, score + 1,
+                        20L * score + random.nextInt(200), random.nextLong(), ""));
+            }
+            double appendMicros = (System.nanoTime() - begin) / 1e3 / games;
+            System.out.printf("%d games appended: %.2f us/game, %d waiting for compaction%n",
+                    games, appendMicros, store.getTailSize());
+
+            report("top 10 (with tail)", () -> store.top(10));
+            store.compact();
+            report("top 10", () -> store.top(10));
+            report("percentile 0.99", () -> store.percentile(0.99));
+            report("rank", () -> store.rank(random.nextInt(120)));
+            report("day stats", () -> store.day(firstDay.plusDays(random.nextInt(30)), zone));
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private interface Query {
+        Object run() throws IOException;
+    }
+
+    private static void report(String name, Query query) throws IOException {
+        for (int i = 0; i < QUERIES; i++) {
+            query.run();
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            query.run();
+        }
+        System.out.printf("%-20s %10.2f us%n", name, (System.nanoTime() - begin) / 1e3 / QUERIES);
+    }
+}
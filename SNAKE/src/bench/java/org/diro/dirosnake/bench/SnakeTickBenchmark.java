@@ -0,0 +1,159 @@
+package org.diro.dirosnake.bench;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.ai.HamiltonianPolicy;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks JMH des chemins chauds du tick : déplacement, collision, apparition de la donnée, croissance
+ * et tick complet, selon la taille du plateau et la longueur du S.N.A.K.E. Le profileur GC ("-prof gc") est
+ * activé par le profil Maven : gc.alloc.rate.norm doit rester à 0 octet par opération.
+ * Le S.N.A.K.E. est posé le long du cycle hamiltonien et le suit, il peut donc avancer indéfiniment.
+ *
+ * mvn -Pbench compile exec:exec@jmh -Djmh.args="SnakeTickBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeTickBenchmark {
+
+    @State(Scope.Thread)
+    public static class Board {
+        @Param({"16", "64", "256"})
+        public int grid;
+
+        @Param({"1", "32", "200"})
+        public int length;
+
+        SnakeGame game;
+        Random random;
+        int[] cycle;
+        int next;
+
+        @Setup(Level.Trial)
+        public void buildCycle() {
+            game = new SnakeGame(grid, grid, 42L);
+            random = new Random(42L);
+
+            HamiltonianPolicy policy = new HamiltonianPolicy();
+            game.reset(42L);
+            policy.decide(game);
+            cycle = new int[grid * grid];
+            for (int cell = 0; cell < cycle.length; cell++) {
+                cycle[policy.getOrder(cell)] = cell;
+            }
+            placeSnake();
+        }
+
+        /** Pose un S.N.A.K.E. de "length" segments sur les premières cellules du cycle, tête en dernier. */
+        void placeSnake() {
+            game.reset(cycle[0] % grid, cycle[0] / grid, Directions.RIGHT);
+            SnakeBody body = game.getBody();
+            for (next = 1; next < length; next++) {
+                body.grow();
+                body.advance(cycle[next] % grid, cycle[next] / grid);
+            }
+        }
+
+        int nextCol() {
+            return cycle[next] % grid;
+        }
+
+        int nextRow() {
+            return cycle[next] / grid;
+        }
+
+        void step() {
+            next = next + 1 == cycle.length ? 0 : next + 1;
+        }
+
+        Directions nextDirection() {
+            SnakeBody body = game.getBody();
+            int dx = nextCol() - body.getHeadCol();
+            int dy = nextRow() - body.getHeadRow();
+            if (dx == 1) {
+                return Directions.RIGHT;
+            }
+            if (dx == -1) {
+                return Directions.LEFT;
+            }
+            return dy == 1 ? Directions.DOWN : Directions.UP;
+        }
+    }
+
+    /** La croissance change la longueur : on repart de "length" à chaque itération, pour un lot borné d'opérations. */
+    @State(Scope.Thread)
+    public static class GrowingBoard extends Board {
+        @Setup(Level.Iteration)
+        public void reset() {
+            placeSnake();
+        }
+    }
+
+    @Benchmark
+    public int move(Board board) {
+        SnakeBody body = board.game.getBody();
+        body.advance(board.nextCol(), board.nextRow());
+        board.step();
+        return body.getHeadCol();
+    }
+
+    @Benchmark
+    public boolean collision(Board board) {
+        // Même test que SnakeGame : bord du plateau, puis deuxième marque dans la grille sous la tête.
+        OccupancyGrid grid = board.game.getGrid();
+        int col = board.nextCol();
+        int row = board.nextRow();
+        board.step();
+        return !grid.contains(col, row) || grid.count(col, row) > 1;
+    }
+
+    @Benchmark
+    public int spawn(Board board) {
+        return board.game.getGrid().randomFreeCell(board.random);
+    }
+
+    /** Score par lot de 50 croissances ; l'allocation mesurée ici est celle de JMH entre les itérations. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 200, batchSize = 50)
+    @Measurement(iterations = 1000, batchSize = 50)
+    public int grow(GrowingBoard board) {
+        SnakeBody body = board.game.getBody();
+        body.grow();
+        body.advance(board.nextCol(), board.nextRow());
+        board.step();
+        return body.size();
+    }
+
+    @Benchmark
+    public Object tick(Board board) {
+        SnakeGame game = board.game;
+        if (game.isOver()) {
+            // Plateau rempli : on repose le S.N.A.K.E. (rare, le coût est amorti sur des milliers de ticks).
+            board.placeSnake();
+        }
+        game.setDirection(board.nextDirection());
+        board.step();
+        return game.tick();
+    }
+}
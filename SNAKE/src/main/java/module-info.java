@@ -5,7 +5,15 @@ open module org.diro.dirosnake {
 
         requires com.almasb.fxgl.all;
         requires java.desktop;
+        requires jdk.management;
         exports org.diro.dirosnake;
+        exports org.diro.dirosnake.ai;
+        exports org.diro.dirosnake.batch;
+        exports org.diro.dirosnake.core;
         exports org.diro.dirosnake.menu;
+        exports org.diro.dirosnake.metrics;
+        exports org.diro.dirosnake.net;
+        exports org.diro.dirosnake.replay;
+        exports org.diro.dirosnake.scores;
         exports org.diro.dirosnake.system;
 }
\ No newline at end of file
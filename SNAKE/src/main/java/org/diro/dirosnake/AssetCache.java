@@ -0,0 +1,167 @@
+package org.diro.dirosnake;
+
+import com.almasb.fxgl.audio.AudioPlayer;
+import com.almasb.fxgl.audio.AudioType;
+import com.almasb.fxgl.audio.Music;
+import com.almasb.fxgl.audio.Sound;
+import com.almasb.fxgl.core.asset.AssetLoaderService;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.logging.Logger;
+import com.almasb.fxgl.texture.Texture;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Sons, musiques et textures chargés une seule fois. {@link #warmUp(Executor)} les charge hors du fil JavaFX
+ * pendant que le premier menu s'affiche : les sons (boutons des menus), puis les textures, décodées
+ * directement à la taille où le jeu les demande, puis les musiques, les plus lourdes. Les éléments sont lus directement depuis leur URL : le cache de FXGL n'est pas
+ * fait pour être rempli depuis un autre fil.
+ *
+ * Les chemins de jeu ne font ensuite que des recherches dans des tables immuables. Un son pas encore prêt
+ * n'est pas joué, une texture pas encore prête est attendue, une musique se demande avec
+ * {@link #musicAsync(String)} et joue quand elle arrive. Un élément absent, ou dont le chargement a échoué,
+ * est chargé par FXGL et compté comme un échec.
+ */
+public class AssetCache {
+
+    private static final String[] SOUNDS = {
+            "callgameover.wav", "codeccall.wav", "codecopen.wav", "codecover.wav", "doorbuzz.wav",
+            "eating.mp3", "exit.wav", "found.wav", "gameover.wav", "itemequip.wav", "itemopen.wav", "itemused.wav"
+    };
+    private static final String[] MUSIC = {"game.mp3", "music-theme.mp3"};
+    // Seules les textures que le jeu demande, à la taille d'une donnée : les autres images ne sont pas utilisées.
+    private static final String[] DATA_TEXTURES = {"coins.png"};
+
+    private static Map<String, CompletableFuture<Sound>> sounds = Map.of();
+    private static Map<String, CompletableFuture<Music>> music = Map.of();
+    private static Map<String, CompletableFuture<Image>> images = Map.of();
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    /** Charge tout sur le fil courant. */
+    public static void preload() {
+        warmUp(Runnable::run);
+    }
+
+    /**
+     * Charge tout sur "executor", dans l'ordre (un exécuteur à un seul fil garde l'ordre). À appeler sur le fil
+     * JavaFX, une fois FXGL prêt. Retourne une future complétée quand tout est chargé.
+     */
+    public static CompletableFuture<Void> warmUp(Executor executor) {
+        long start = System.nanoTime();
+        AssetLoaderService loader = FXGL.getAssetLoader();
+        AudioPlayer player = FXGL.getAudioPlayer();
+        boolean mobile = FXGL.isMobile();
+        List<CompletableFuture<?>> all = new ArrayList<>();
+
+        Map<String, CompletableFuture<Sound>> loadingSounds = new HashMap<>();
+        for (String name : SOUNDS) {
+            loadingSounds.put(name, load(all, executor, name, () ->
+                    new Sound(player.loadAudio(AudioType.SOUND, loader.getURL("/assets/sounds/" + name), mobile))));
+        }
+
+        Map<String, CompletableFuture<Image>> loadingImages = new HashMap<>();
+        int size = Constants.DATA_IMAGE_SIZE;
+        for (String name : DATA_TEXTURES) {
+            String key = scaledKey(name, size, size);
+            loadingImages.put(key, load(all, executor, key, () ->
+                    new Image(loader.getURL("/assets/textures/" + name).toExternalForm(), size, size, false, true)));
+        }
+
+        Map<String, CompletableFuture<Music>> loadingMusic = new HashMap<>();
+        for (String name : MUSIC) {
+            loadingMusic.put(name, load(all, executor, name, () ->
+                    new Music(player.loadAudio(AudioType.MUSIC, loader.getURL("/assets/music/" + name), mobile))));
+        }
+
+        sounds = Map.copyOf(loadingSounds);
+        music = Map.copyOf(loadingMusic);
+        images = Map.copyOf(loadingImages);
+
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenRun(() ->
+                Logger.get(AssetCache.class).info(String.format("Assets warmed up in %.0f ms",
+                        (System.nanoTime() - start) / 1e6)));
+    }
+
+    /** Son déjà chargé, attendu s'il est en cours de chargement. */
+    public static Sound sound(String name) {
+        CompletableFuture<Sound> loading = sounds.get(name);
+        Sound sound = loading == null ? null : loading.join();
+        if (sound != null) {
+            hits++;
+            return sound;
+        }
+        misses++;
+        return FXGL.getAssetLoader().loadSound(name);
+    }
+
+    /** Joue un son ; s'il est encore en cours de chargement (juste après le lancement), il est sauté. */
+    public static void playSound(String name) {
+        CompletableFuture<Sound> loading = sounds.get(name);
+        if (loading != null && !loading.isDone()) {
+            return;
+        }
+        FXGL.getAudioPlayer().playSound(sound(name));
+    }
+
+    /** Musique, complétée sur le fil JavaFX dès qu'elle est chargée : on peut la jouer depuis la future. */
+    public static CompletableFuture<Music> musicAsync(String name) {
+        CompletableFuture<Music> loading = music.get(name);
+        if (loading == null) {
+            misses++;
+            return CompletableFuture.completedFuture(FXGL.getAssetLoader().loadMusic(name));
+        }
+        hits++;
+        return loading.thenApplyAsync(loaded -> loaded != null ? loaded : FXGL.getAssetLoader().loadMusic(name),
+                Platform::runLater);
+    }
+
+    /** Nouvelle vue (un noeud JavaFX ne peut avoir qu'un parent) sur une image déjà décodée et mise à l'échelle. */
+    public static Texture texture(String name, int width, int height) {
+        return new Texture(image(name, width, height));
+    }
+
+    /** Image décodée et mise à l'échelle, partagée : à dessiner, pas à modifier. */
+    public static Image image(String name, int width, int height) {
+        CompletableFuture<Image> loading = images.get(scaledKey(name, width, height));
+        Image image = loading == null ? null : loading.join();
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        return FXGL.texture(name, width, height).getImage();
+    }
+
+    public static long getHitCount() {
+        return hits;
+    }
+
+    public static long getMissCount() {
+        return misses;
+    }
+
+    /** Un chargement qui échoue est noté et complète sa future avec null : l'élément passera par FXGL. */
+    private static <T> CompletableFuture<T> load(List<CompletableFuture<?>> all, Executor executor, String name,
+                                                 Supplier<T> loader) {
+        CompletableFuture<T> loading = CompletableFuture.supplyAsync(loader, executor).exceptionally(e -> {
+            Logger.get(AssetCache.class).warning("Could not warm up " + name + ": " + e.getMessage());
+            return null;
+        });
+        all.add(loading);
+        return loading;
+    }
+
+    private static String scaledKey(String name, int width, int height) {
+        return name + "@" + width + "x" + height;
+    }
+}
@@ -0,0 +1,6 @@
+package org.diro.dirosnake;
+
+public enum BackgroundMode {
+    TILES,
+    RASTER
+}
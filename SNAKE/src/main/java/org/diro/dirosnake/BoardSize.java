@@ -0,0 +1,47 @@
+package org.diro.dirosnake;
+
+/**
+ * Taille du plateau, en cellules, choisie au lancement. Par défaut le plateau remplit exactement la fenêtre ;
+ * un plus grand plateau est vu à travers la caméra qui suit la tête.
+ *
+ * java ... org.diro.dirosnake.Launcher --cols 1000 --rows 1000   (ou -Dsnake.cols=1000 -Dsnake.rows=1000)
+ */
+public final class BoardSize {
+
+    public static final String COLS_PROPERTY = "snake.cols";
+    public static final String ROWS_PROPERTY = "snake.rows";
+
+    private final int cols;
+    private final int rows;
+
+    public BoardSize(int cols, int rows) {
+        if (cols < 2 || rows < 2) {
+            throw new IllegalArgumentException("Board must be at least 2x2 cells: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+    }
+
+    /** Lit la taille dans les propriétés système, ou prend la taille de la fenêtre. */
+    public static BoardSize fromSystemProperties() {
+        return new BoardSize(
+                Integer.getInteger(COLS_PROPERTY, Constants.WIDTH / Constants.GRID_SCALE),
+                Integer.getInteger(ROWS_PROPERTY, Constants.HEIGHT / Constants.GRID_SCALE));
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getPixelWidth() {
+        return cols * Constants.GRID_SCALE;
+    }
+
+    public int getPixelHeight() {
+        return rows * Constants.GRID_SCALE;
+    }
+}
@@ -7,8 +7,23 @@ public class Constants {
     public static final int HEIGHT = 800;
     public static final int GRID_SCALE = 50;
     public static final double SNAKE_SPEED = 7.0;
+    public static final int MAX_CATCH_UP_TICKS = 5;
+    public static final boolean INTERPOLATE_RENDER = true;
+    public static final int INPUT_QUEUE_SIZE = 3;
+    public static final int ARENA_SNAKES = 0;
+    public static final int ARENA_SNAKES_PER_DATA = 2;
+    public static final int METRICS_FRAME_WINDOW = 240;
+    public static final double METRICS_INTERVAL = 0.5;
+    // Menus immobiles : passage à IDLE_FPS images par seconde après IDLE_DELAY secondes sans entrée ni animation.
+    public static final double IDLE_DELAY = 5.0;
+    public static final double IDLE_FPS = 4.0;
+    public static final long SCORE_COMPACTION_PERIOD = 60;
+    public static final int SCORE_COMPACTION_MIN_TAIL = 256;
+    public static final int DATA_IMAGE_SIZE = (int) (GRID_SCALE * 1.4);
     public static final Color SNAKE_HEAD_COLOR = Color.color(0,0.75,0.70);
     public static final Color SNAKE_BODY_COLOR = SNAKE_HEAD_COLOR;
     public static final Color TILE_1 = Color.color(0, 0.13, 0.09);
     public static final Color TILE_2 = Color.color(0, 0.14, 0.10);
+    public static final BackgroundMode BACKGROUND_MODE = BackgroundMode.RASTER;
+    public static final BodyRenderMode BODY_RENDER_MODE = BodyRenderMode.ENTITIES;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.diro.dirosnake;
+
+public enum ControlMode {
+    KEYBOARD,
+    PATHFINDER,
+    HAMILTONIAN
+}
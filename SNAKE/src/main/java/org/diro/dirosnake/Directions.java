@@ -1,8 +1,37 @@
 package org.diro.dirosnake;
 
 public enum Directions {
-    UP,
-    LEFT,
-    RIGHT,
-    DOWN
+    UP(0, -1),
+    LEFT(-1, 0),
+    RIGHT(1, 0),
+    DOWN(0, 1);
+
+    private final int dx;
+    private final int dy;
+
+    Directions(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public int dx() {
+        return dx;
+    }
+
+    public int dy() {
+        return dy;
+    }
+
+    public Directions opposite() {
+        switch (this) {
+            case UP:
+                return DOWN;
+            case DOWN:
+                return UP;
+            case LEFT:
+                return RIGHT;
+            default:
+                return LEFT;
+        }
+    }
 }
@@ -0,0 +1,6 @@
+package org.diro.dirosnake;
+
+public enum GamePhase {
+    PLAYING,
+    GAME_OVER
+}
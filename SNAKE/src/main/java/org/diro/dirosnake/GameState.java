@@ -1,11 +1,49 @@
 package org.diro.dirosnake;
 
+import org.diro.dirosnake.event.GameEvent;
+import org.diro.dirosnake.event.GameEventBus;
+
+/**
+ * Machine à états d'une partie (voir {@link GamePhase}). Chaque changement d'état est publié sur le bus de
+ * la partie ; rien n'est statique, plusieurs parties peuvent donc coexister.
+ */
 public class GameState {
-    public static boolean isGameOver = false;
-    public static boolean restartGame = false;
 
-    public static void resetGameStates() {
-        isGameOver = false;
-        restartGame = false;
+    private final GameEventBus events;
+    private GamePhase phase = GamePhase.PLAYING;
+
+    public GameState(GameEventBus events) {
+        this.events = events;
+    }
+
+    /** Une nouvelle partie commence. */
+    public void start() {
+        phase = GamePhase.PLAYING;
+        events.publish(GameEvent.STARTED);
+    }
+
+    /** Fin de la partie ; sans effet si elle est déjà finie. */
+    public void gameOver() {
+        if (phase == GamePhase.PLAYING) {
+            phase = GamePhase.GAME_OVER;
+            events.publish(GameEvent.GAME_OVER);
+        }
+    }
+
+    /** Demande de recommencer, traitée par les abonnés de RESTART (qui rappellent ensuite {@link #start()}). */
+    public void restart() {
+        events.publish(GameEvent.RESTART);
+    }
+
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    public boolean isGameOver() {
+        return phase == GamePhase.GAME_OVER;
+    }
+
+    public GameEventBus getEvents() {
+        return events;
     }
-}
\ No newline at end of file
+}
@@ -3,17 +3,89 @@ package org.diro.dirosnake;
 import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
 import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.logging.Logger;
+import javafx.application.Platform;
+import org.diro.dirosnake.ai.ArenaGreedyPolicy;
+import org.diro.dirosnake.ai.HamiltonianPolicy;
+import org.diro.dirosnake.ai.PathfinderPolicy;
 import org.diro.dirosnake.menu.SnakeSceneFactory;
+import org.diro.dirosnake.core.ArenaGame;
+import org.diro.dirosnake.core.Collision;
+import org.diro.dirosnake.core.FixedTimestep;
+import org.diro.dirosnake.core.InputQueue;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+import org.diro.dirosnake.event.GameEvent;
+import org.diro.dirosnake.event.GameEventBus;
+import org.diro.dirosnake.metrics.MetricsSample;
+import org.diro.dirosnake.metrics.MetricsWriter;
+import org.diro.dirosnake.metrics.PerformanceMonitor;
+import org.diro.dirosnake.metrics.StartupPhase;
+import org.diro.dirosnake.metrics.StartupTimer;
+import org.diro.dirosnake.replay.ReplayRecorder;
+import org.diro.dirosnake.scores.GameRecord;
+import org.diro.dirosnake.scores.ScoreStore;
 import org.diro.dirosnake.system.*;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class Launcher extends GameApplication {
-    private final ArrayList<SnakeCell> snake = new ArrayList<>();
-    SnakePhysics physics;
+    // Nombre de S.N.A.K.E. de l'arène ; 0 garde la partie classique à un seul S.N.A.K.E.
+    public static final String ARENA_PROPERTY = "snake.arena";
+    // Relevés CSV (metrics/) et temps de démarrage (metrics/startup.csv) ; désactivés par défaut.
+    public static final String METRICS_PROPERTY = "snake.metrics";
+    // Quitte après la première image, une fois tout chargé : entraînement de l'archive CDS (profil cds du pom).
+    public static final String EXIT_AFTER_STARTUP_PROPERTY = "snake.exitAfterStartup";
+    private static final Path REPLAY_DIRECTORY = Path.of("replays");
+    private static final Path METRICS_DIRECTORY = Path.of("metrics");
+    private static final StartupTimer startup = new StartupTimer();
+
+    private final BoardSize board = BoardSize.fromSystemProperties();
+    private final boolean exportMetrics = Boolean.getBoolean(METRICS_PROPERTY);
+    private final ArenaGame arena = createArena(board);
+    // Partie classique, seulement hors de l'arène.
+    private final SnakeGame game = arena == null ? new SnakeGame(board.getCols(), board.getRows(), new Random()) : null;
+    private final SnakeView view = new SnakeView();
+    private final ArenaView arenaView = new ArenaView();
+    private final ArenaGreedyPolicy arenaGreedy = new ArenaGreedyPolicy();
+    private final InputQueue inputQueue = new InputQueue(Constants.INPUT_QUEUE_SIZE);
+    private final PathfinderPolicy pathfinder = new PathfinderPolicy();
+    private final HamiltonianPolicy hamiltonian = new HamiltonianPolicy();
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private final Random seeds = new Random();
+    private final FixedTimestep timestep = new FixedTimestep(1.0 / Constants.SNAKE_SPEED, Constants.MAX_CATCH_UP_TICKS);
+    private final PerformanceMonitor monitor = new PerformanceMonitor(Constants.METRICS_FRAME_WINDOW);
+    private final MetricsSample metrics = new MetricsSample();
+    private final MetricsWriter metricsWriter = new MetricsWriter(METRICS_DIRECTORY);
+    private final PerformanceHud hud = new PerformanceHud();
+    private final FramePacer pacer = new FramePacer(Constants.IDLE_DELAY, Constants.IDLE_FPS);
+    private final GameEventBus events = new GameEventBus();
+    private final GameState state = new GameState(events);
+    // Fil de chargement : sons, textures, musiques et damier (voir onPreInit), arrêté une fois tout lancé.
+    private final ExecutorService loader = daemonExecutor("warm-up");
+    // Fil du magasin de scores, pour toute la vie du jeu : ouverture, puis chaque ajout (écriture forcée sur le
+    // disque, parfois une compaction) sans jamais bloquer le fil JavaFX.
+    private final ExecutorService scoreWriter = daemonExecutor("scores");
+    // Complété par null si les scores ne sont pas enregistrés.
+    private CompletableFuture<ScoreStore> scores;
+    // Position dans le magasin de la partie qui vient de finir, ou -1 si elle n'y est pas (arène, échec).
+    private CompletableFuture<Integer> lastRecord = CompletableFuture.completedFuture(-1);
+    private double metricsTimer = 0;
+    private long appliedInputs = 0;
+    private int snakeLength = 0;
+    private long gameSeed;
     SnakeInput inputs;
-    SnakeEnvironment environment = new SnakeEnvironment();
+    SnakeEnvironment environment = new SnakeEnvironment(Constants.BACKGROUND_MODE,
+            Constants.WIDTH, Constants.HEIGHT, Constants.GRID_SCALE, board.getCols(), board.getRows());
     private com.almasb.fxgl.audio.Music gameMusic;
+    private long musicRequest = 0;
+    private CompletableFuture<Void> warmUp = CompletableFuture.completedFuture(null);
 
     @Override
     protected void initSettings(GameSettings settings) {
@@ -23,71 +95,344 @@ public class Launcher extends GameApplication {
         settings.setVersion("1.0.0");
         settings.setFontUI("MGS.ttf");
         settings.setMainMenuEnabled(true);
-        settings.setSceneFactory(new SnakeSceneFactory());
-    }
+        // Ouverture et récupération du magasin en tâche de fond : le premier menu ne les attend pas.
+        scores = CompletableFuture.supplyAsync(Launcher::openScores, scoreWriter).exceptionally(e -> {
+            Logger.get(Launcher.class).warning("Scores will not be saved: " + e.getMessage());
+            return null;
+        });
+        settings.setSceneFactory(new SnakeSceneFactory(state, scores, () -> lastRecord, pacer));
 
-    @Override
-    protected void initGame() {
-        environment.createBackground();
-        SnakeLogic.initGame(snake);
-        SnakeLogic.spawnData(snake);
-        TimeHelper.resetTime();
+        events.subscribe(GameEvent.GAME_OVER, event -> onGameOver());
+        events.subscribe(GameEvent.RESTART, event -> FXGL.getGameController().startNewGame());
+        events.subscribe(GameEvent.ATE_DATA, event -> AssetCache.playSound("eating.mp3"));
+        events.subscribe(GameEvent.GREW, event -> snakeLength++);
+        events.subscribe(GameEvent.STARTED, event -> snakeLength = currentLength());
 
-        gameMusic = FXGL.getAssetLoader().loadMusic("game.mp3");
-        FXGL.getAudioPlayer().loopMusic(gameMusic);
+        // Les règles passent par la phase de collision du coeur ; le joueur est le S.N.A.K.E. 0 de l'arène.
+        if (arena != null) {
+            arena.setCollisionListener((snake, collision) -> {
+                if (snake == 0) {
+                    onCollision(collision);
+                }
+            });
+        } else {
+            game.setCollisionListener((snake, collision) -> onCollision(collision));
+        }
 
+        pacer.onFirstFrame(this::onFirstFrame);
+        // FXGL n'a pas de crochet de sortie : les fichiers ouverts sont fermés à l'arrêt de la JVM.
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeFiles, "close-files"));
+        startup.mark(StartupPhase.SETTINGS);
     }
 
     @Override
-    protected void initPhysics() {
-        physics = new SnakePhysics(snake, FXGL.getPhysicsWorld());
-        physics.init();
+    protected void onPreInit() {
+        // Sons, textures, musiques et damier se chargent sur un fil à part : le premier menu ne les attend pas.
+        warmUp = AssetCache.warmUp(loader);
+        environment.paintBackground(loader);
+        loader.shutdown();
+        startup.mark(StartupPhase.PRE_INIT);
+    }
+
+    @Override
+    protected void initGame() {
+        // Aucune entité n'a de boîte de collision : le monde physique n'a plus besoin de suivre les entités.
+        FXGL.getGameWorld().removeWorldListener(FXGL.getPhysicsWorld());
+        environment.createBackground();
+        long seed = seeds.nextLong();
+        gameSeed = seed;
+        if (arena != null) {
+            arena.reset(seed);
+            inputQueue.reset(arena.getDirection(0));
+            arenaView.build(arena);
+        } else {
+            game.reset(seed);
+            recorder.begin(game.getCols(), game.getRows(), seed, game.getDirection());
+            inputQueue.reset(game.getDirection());
+            view.build(game);
+        }
+        timestep.reset();
+        monitor.reset();
+        metricsTimer = 0;
+        state.start();
+        startMusic();
     }
 
     @Override
     protected void initInput() {
-        inputs = new SnakeInput(snake, FXGL.getInput());
+        inputs = new SnakeInput(inputQueue, FXGL.getInput(), hud);
         inputs.init();
     }
 
+    @Override
+    protected void initUI() {
+        hud.attach();
+    }
+
     @Override
     protected void onUpdate(double tpf) {
+        monitor.frame(System.nanoTime());
+
+        // Durée mesurée : le tpf de FXGL reste faux deux secondes après un passage au ralenti des menus.
+        double seconds = pacer.gameFrame(tpf);
+        int steps = timestep.advance(seconds);
+        if (arena != null) {
+            updateArena(steps);
+        } else {
+            updateGame(steps);
+        }
+        recordMetrics(seconds);
+    }
 
-        if (GameState.isGameOver && !GameState.restartGame) {
-            FXGL.getGameController().gotoGameMenu();
+    private void updateGame(int steps) {
+        SnakePolicy policy = policy(inputs.getControlMode());
+        for (int i = 0; i < steps && !game.isOver(); i++) {
+            long tickStart = System.nanoTime();
+            Directions direction = policy.decide(game);
+            recorder.record(game.getTicks(), direction);
+            game.setDirection(direction);
+            game.tick();
+            view.sync(game);
+            monitor.tick(System.nanoTime() - tickStart);
+            recordInputLatency();
+        }
+        // Plateau plein : la partie est finie sans collision.
+        if (game.isOver()) {
+            state.gameOver();
         }
 
-        if (GameState.restartGame) {
-            FXGL.getGameController().startNewGame();
-            snake.clear();
-            GameState.resetGameStates();
+        view.render(game, Constants.INTERPOLATE_RENDER ? timestep.alpha() : 1.0);
+        environment.follow(view.getCamera());
+    }
+
+    /** Arène : le joueur est le S.N.A.K.E. 0, la partie se termine à sa mort. Pas de replay pour l'instant. */
+    private void updateArena(int steps) {
+        for (int i = 0; i < steps && !state.isGameOver(); i++) {
+            long tickStart = System.nanoTime();
+            arena.tick();
+            monitor.tick(System.nanoTime() - tickStart);
+            recordInputLatency();
         }
 
-        double now = FXGL.getGameTimer().getNow();
-        if (now - TimeHelper.getStartTime() >= 1.0 / Constants.SNAKE_SPEED) {
-            TimeHelper.resetTime();
+        arenaView.render(arena);
+        environment.follow(arenaView.getCamera());
+    }
 
-            Directions dir = snake.isEmpty() ? Directions.RIGHT : snake.get(0).direction;
-            SnakeLogic.moveSnake(snake, dir);
+    private ArenaGame createArena(BoardSize board) {
+        int snakes = Integer.getInteger(ARENA_PROPERTY, Constants.ARENA_SNAKES);
+        if (snakes <= 0) {
+            return null;
         }
 
-        if (GameState.isGameOver && !GameState.restartGame) {
-            if (gameMusic != null) FXGL.getAudioPlayer().stopMusic(gameMusic);
-            FXGL.getGameController().gotoGameMenu();
+        ArenaGame created = new ArenaGame(board.getCols(), board.getRows(), snakes,
+                Math.max(1, snakes / Constants.ARENA_SNAKES_PER_DATA), new Random());
+        // Le joueur suit le mode de contrôle courant ; les autres S.N.A.K.E. sont gloutons.
+        created.setPolicy(0, (a, snake) -> inputs.getControlMode() == ControlMode.KEYBOARD
+                ? inputQueue.next(a.getDirection(snake))
+                : arenaGreedy.decide(a, snake));
+        for (int i = 1; i < snakes; i++) {
+            created.setPolicy(i, arenaGreedy);
         }
+        return created;
+    }
 
-        if (GameState.restartGame) {
-            if (gameMusic != null) FXGL.getAudioPlayer().stopMusic(gameMusic);
-            FXGL.getGameController().startNewGame();
-            snake.clear();
-            GameState.resetGameStates();
+    private SnakePolicy policy(ControlMode mode) {
+        switch (mode) {
+            case PATHFINDER:
+                return pathfinder;
+            case HAMILTONIAN:
+                return hamiltonian;
+            default:
+                return inputQueue;
         }
+    }
 
-        //TODO: Faire bouger le S.N.A.K.E automatiquement ici.
+    /** Un tick applique au plus une direction de la file : on note son délai s'il en a appliqué une. */
+    private void recordInputLatency() {
+        if (inputQueue.getAppliedCount() != appliedInputs) {
+            appliedInputs = inputQueue.getAppliedCount();
+            monitor.input(inputQueue.getLastLatencyNanos());
+        }
+    }
 
+    private void recordMetrics(double tpf) {
+        metricsTimer += tpf;
+        if (metricsTimer < Constants.METRICS_INTERVAL) {
+            return;
+        }
+        metricsTimer = 0;
+
+        monitor.sample(metrics, FXGL.getGameWorld().getEntities().size(), snakeLength);
+        hud.update(metrics);
+        if (exportMetrics) {
+            try {
+                metricsWriter.write(metrics);
+            } catch (IOException e) {
+                Logger.get(Launcher.class).warning("Could not write metrics: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Une donnée ramassée fait grandir le S.N.A.K.E. au déplacement suivant ; un mur ou un corps finit la partie. */
+    private void onCollision(Collision collision) {
+        switch (collision) {
+            case DATA:
+                events.publish(GameEvent.ATE_DATA);
+                events.publish(GameEvent.GREW);
+                break;
+            case BODY:
+            case WALL:
+                state.gameOver();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onGameOver() {
+        if (arena == null) {
+            // La partie est lue maintenant ; elle est ajoutée au magasin sur son propre fil, dès qu'il est ouvert.
+            GameRecord record = newRecord(saveReplay());
+            lastRecord = scores.thenApplyAsync(store -> recordScore(store, record), scoreWriter);
+        } else {
+            lastRecord = CompletableFuture.completedFuture(-1);
+        }
+        stopMusic();
+        FXGL.getGameController().gotoGameMenu();
+    }
+
+    /** La musique joue dès qu'elle est chargée, sans retarder la partie ; ignorée si la partie a changé depuis. */
+    private void startMusic() {
+        // La musique de la partie précédente joue encore si on est revenu par le menu principal.
+        stopMusic();
+        long request = musicRequest;
+        AssetCache.musicAsync("game.mp3").thenAccept(music -> {
+            if (request == musicRequest) {
+                gameMusic = music;
+                FXGL.getAudioPlayer().loopMusic(music);
+            }
+        });
+    }
+
+    private void stopMusic() {
+        musicRequest++;
+        if (gameMusic != null) {
+            FXGL.getAudioPlayer().stopMusic(gameMusic);
+            gameMusic = null;
+        }
+    }
+
+    /** Première image affichée : temps de démarrage noté et, en entraînement CDS, sortie une fois tout chargé. */
+    private void onFirstFrame() {
+        startup.mark(StartupPhase.FIRST_FRAME);
+        Logger.get(Launcher.class).info("Startup: " + startup.summary());
+        if (exportMetrics) {
+            try {
+                startup.append(METRICS_DIRECTORY.resolve("startup.csv"));
+            } catch (IOException e) {
+                Logger.get(Launcher.class).warning("Could not record startup time: " + e.getMessage());
+            }
+        }
+        if (Boolean.getBoolean(EXIT_AFTER_STARTUP_PROPERTY)) {
+            warmUp.thenRun(() -> Platform.runLater(() -> FXGL.getGameController().exit()));
+        }
+    }
+
+    private int currentLength() {
+        return arena != null ? arena.getBody(0).size() : game.getBody().size();
+    }
+
+    /** Retourne le chemin de la reprise, ou null si elle n'a pas pu être écrite. */
+    private Path saveReplay() {
+        try {
+            return recorder.save(REPLAY_DIRECTORY, game);
+        } catch (IOException e) {
+            Logger.get(Launcher.class).warning("Could not save replay: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private GameRecord newRecord(Path replay) {
+        String replayName = replay == null ? "" : REPLAY_DIRECTORY.relativize(replay).toString();
+        return new GameRecord(System.currentTimeMillis(), game.getScore(), game.getBody().size(),
+                game.getTicks(), gameSeed, replayName);
+    }
+
+    /** Retourne la position de la partie dans le magasin, ou -1 si elle n'a pas pu être enregistrée. */
+    private static int recordScore(ScoreStore store, GameRecord record) {
+        if (store == null) {
+            return -1;
+        }
+        try {
+            return store.append(record);
+        } catch (IOException e) {
+            Logger.get(Launcher.class).warning("Could not record score: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static ScoreStore openScores() {
+        try {
+            ScoreStore store = ScoreStore.open(Path.of("scores"));
+            store.startCompaction(Constants.SCORE_COMPACTION_PERIOD, Constants.SCORE_COMPACTION_MIN_TAIL);
+            return store;
+        } catch (IOException e) {
+            Logger.get(Launcher.class).warning("Scores will not be saved: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Ferme le fichier de relevés et le magasin de scores (à l'arrêt : le journal de FXGL est déjà fermé). */
+    private void closeFiles() {
+        System.Logger log = System.getLogger(Launcher.class.getName());
+        try {
+            metricsWriter.close();
+        } catch (IOException e) {
+            log.log(System.Logger.Level.WARNING, "Could not close metrics: " + e.getMessage());
+        }
+        // Les parties en cours d'ajout sont écrites avant la fermeture du magasin.
+        scoreWriter.shutdown();
+        try {
+            scoreWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ScoreStore store = scores == null ? null : scores.getNow(null);
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.log(System.Logger.Level.WARNING, "Could not close scores: " + e.getMessage());
+            }
+        }
+    }
+
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public static void main(String[] args) {
+        startup.mark(StartupPhase.MAIN);
+        // --cols et --rows choisissent la taille du plateau (voir BoardSize), --arena le nombre de S.N.A.K.E.,
+        // --metrics active les relevés.
+        for (String arg : args) {
+            if (arg.equals("--metrics")) {
+                System.setProperty(METRICS_PROPERTY, "true");
+            }
+        }
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--cols")) {
+                System.setProperty(BoardSize.COLS_PROPERTY, args[++i]);
+            } else if (args[i].equals("--rows")) {
+                System.setProperty(BoardSize.ROWS_PROPERTY, args[++i]);
+            } else if (args[i].equals("--arena")) {
+                System.setProperty(ARENA_PROPERTY, args[++i]);
+            }
+        }
         launch(args);
     }
 }
\ No newline at end of file
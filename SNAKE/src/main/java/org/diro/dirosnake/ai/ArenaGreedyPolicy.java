@@ -0,0 +1,73 @@
+package org.diro.dirosnake.ai;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.ArenaGame;
+import org.diro.dirosnake.core.ArenaPolicy;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+
+/**
+ * Politique d'arène bon marché : vise la donnée la plus proche et évite les cases prises, en préférant celles
+ * qui ont encore une sortie. Une décision coûte O(nombre de données), ce qui permet des dizaines de S.N.A.K.E.
+ * par image. Sans état : une seule instance peut servir à toute l'arène.
+ */
+public class ArenaGreedyPolicy implements ArenaPolicy {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    @Override
+    public Directions decide(ArenaGame arena, int snake) {
+        SnakeBody body = arena.getBody(snake);
+        OccupancyGrid grid = arena.getGrid();
+        int col = body.getHeadCol();
+        int row = body.getHeadRow();
+        int cols = arena.getCols();
+
+        int targetCol = col;
+        int targetRow = row;
+        int targetDistance = Integer.MAX_VALUE;
+        for (int k = 0; k < arena.getDataCount(); k++) {
+            int cell = arena.getDataCell(k);
+            if (cell < 0) {
+                continue;
+            }
+            int distance = Math.abs(cell % cols - col) + Math.abs(cell / cols - row);
+            if (distance < targetDistance) {
+                targetDistance = distance;
+                targetCol = cell % cols;
+                targetRow = cell / cols;
+            }
+        }
+
+        Directions current = arena.getDirection(snake);
+        Directions best = current;
+        int bestScore = Integer.MIN_VALUE;
+        for (Directions direction : DIRECTIONS) {
+            if (body.size() > 1 && direction == current.opposite()) {
+                continue;
+            }
+            int nextCol = col + direction.dx();
+            int nextRow = row + direction.dy();
+            if (!grid.contains(nextCol, nextRow) || grid.isOccupied(nextCol, nextRow)) {
+                continue;
+            }
+
+            // Une case sans sortie ne vaut que si aucune autre n'est libre.
+            int exits = 0;
+            for (Directions next : DIRECTIONS) {
+                int c = nextCol + next.dx();
+                int r = nextRow + next.dy();
+                if (grid.contains(c, r) && !grid.isOccupied(c, r)) {
+                    exits++;
+                }
+            }
+            int distance = Math.abs(nextCol - targetCol) + Math.abs(nextRow - targetRow);
+            int score = (exits > 0 ? 0 : -1_000_000) - distance;
+            if (score > bestScore) {
+                bestScore = score;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
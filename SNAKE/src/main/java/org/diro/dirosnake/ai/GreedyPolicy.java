@@ -0,0 +1,47 @@
+package org.diro.dirosnake.ai;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+
+/**
+ * Politique simple : se rapproche de la donnée en évitant les murs et le corps au prochain pas.
+ * Elle ne regarde pas plus loin et finit souvent par s'enfermer, ce qui en fait une bonne référence.
+ */
+public class GreedyPolicy implements SnakePolicy {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    @Override
+    public Directions decide(SnakeGame game) {
+        SnakeBody body = game.getBody();
+        OccupancyGrid grid = game.getGrid();
+        int col = body.getHeadCol();
+        int row = body.getHeadRow();
+
+        Directions best = game.getDirection();
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (Directions direction : DIRECTIONS) {
+            if (body.size() > 1 && direction == game.getDirection().opposite()) {
+                continue;
+            }
+
+            int nextCol = col + direction.dx();
+            int nextRow = row + direction.dy();
+            if (!grid.contains(nextCol, nextRow) || grid.isOccupied(nextCol, nextRow)) {
+                continue;
+            }
+
+            int distance = Math.abs(nextCol - game.getDataCol()) + Math.abs(nextRow - game.getDataRow());
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,148 @@
+package org.diro.dirosnake.ai;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+
+/**
+ * Partie parfaite : le S.N.A.K.E. suit un cycle hamiltonien qui passe une fois par chaque cellule, ce qui lui
+ * permet de remplir tout le plateau. Tant qu'il est court, il coupe vers la donnée par une case voisine plus
+ * loin sur le cycle, sans jamais dépasser sa queue : le corps reste rangé dans l'ordre du cycle.
+ * Le cycle se construit en O(cols * rows) et chaque décision ne regarde que les quatre voisines de la tête.
+ * Un plateau impair dans les deux sens n'a pas de cycle, on se rabat alors sur {@link PathfinderPolicy}.
+ */
+public class HamiltonianPolicy implements SnakePolicy {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+    // Marge entre la tête et la queue pour absorber la croissance en attente.
+    private static final int SAFETY_MARGIN = 3;
+
+    private int cols = 0;
+    private int rows = 0;
+    private int[] order = new int[0];
+    private PathfinderPolicy fallback;
+
+    @Override
+    public Directions decide(SnakeGame game) {
+        allocate(game.getCols(), game.getRows());
+        if (fallback != null) {
+            return fallback.decide(game);
+        }
+
+        OccupancyGrid grid = game.getGrid();
+        SnakeBody body = game.getBody();
+        int cells = cols * rows;
+        int size = body.size();
+        int headCol = body.getHeadCol();
+        int headRow = body.getHeadRow();
+        int head = order[headRow * cols + headCol];
+        int tail = order[body.getRow(size - 1) * cols + body.getCol(size - 1)];
+
+        int toTail = size == 1 ? cells : distance(head, tail, cells);
+        int toData = game.getDataCell() < 0 ? 1 : distance(head, order[game.getDataCell()], cells);
+
+        // Raccourci permis : rester derrière la queue, et plus de raccourci du tout passé la moitié du plateau.
+        int allowed = 0;
+        if (size + 1 < cells / 2) {
+            allowed = Math.min(toData, toTail - size - SAFETY_MARGIN);
+        }
+
+        Directions best = null;
+        int bestDistance = 0;
+        for (Directions direction : DIRECTIONS) {
+            int col = headCol + direction.dx();
+            int row = headRow + direction.dy();
+            if (!grid.contains(col, row) || grid.isOccupied(col, row)) {
+                continue;
+            }
+
+            int step = distance(head, order[row * cols + col], cells);
+            // Le pas suivant sur le cycle (step == 1) est toujours sûr, même quand la queue le libère à peine.
+            if ((step == 1 || step <= allowed) && step > bestDistance) {
+                bestDistance = step;
+                best = direction;
+            }
+        }
+
+        if (best == null) {
+            // La case suivante du cycle est la queue, qui se libère à ce tick.
+            return towards(head + 1 == cells ? 0 : head + 1, headCol, headRow);
+        }
+        return best;
+    }
+
+    /** Position de la cellule (row * cols + col) sur le cycle. */
+    public int getOrder(int cell) {
+        return order[cell];
+    }
+
+    public boolean hasCycle() {
+        return fallback == null && order.length > 0;
+    }
+
+    private static int distance(int from, int to, int cells) {
+        int distance = to - from;
+        return distance < 0 ? distance + cells : distance;
+    }
+
+    private Directions towards(int position, int headCol, int headRow) {
+        for (Directions direction : DIRECTIONS) {
+            int col = headCol + direction.dx();
+            int row = headRow + direction.dy();
+            if (col >= 0 && row >= 0 && col < cols && row < rows && order[row * cols + col] == position) {
+                return direction;
+            }
+        }
+        return DIRECTIONS[0];
+    }
+
+    private void allocate(int cols, int rows) {
+        if (this.cols == cols && this.rows == rows) {
+            return;
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.order = new int[cols * rows];
+        this.fallback = null;
+
+        if (rows % 2 == 0 && cols > 1) {
+            buildCycle(cols, rows, false);
+        } else if (cols % 2 == 0 && rows > 1) {
+            buildCycle(rows, cols, true);
+        } else {
+            fallback = new PathfinderPolicy();
+        }
+    }
+
+    /**
+     * Cycle en serpentin : la rangée 0 de gauche à droite, puis des allers-retours sur les colonnes 1 et plus,
+     * rangée par rangée, et retour par la colonne 0. Demande un nombre pair de rangées ("height").
+     * Avec "transposed", les rangées et les colonnes sont échangées.
+     */
+    private void buildCycle(int width, int height, boolean transposed) {
+        int position = 0;
+        for (int x = 0; x < width; x++) {
+            order[index(x, 0, transposed)] = position++;
+        }
+        for (int y = 1; y < height; y++) {
+            if (y % 2 == 1) {
+                for (int x = width - 1; x >= 1; x--) {
+                    order[index(x, y, transposed)] = position++;
+                }
+            } else {
+                for (int x = 1; x < width; x++) {
+                    order[index(x, y, transposed)] = position++;
+                }
+            }
+        }
+        for (int y = height - 1; y >= 1; y--) {
+            order[index(0, y, transposed)] = position++;
+        }
+    }
+
+    private int index(int x, int y, boolean transposed) {
+        return transposed ? x * cols + y : y * cols + x;
+    }
+}
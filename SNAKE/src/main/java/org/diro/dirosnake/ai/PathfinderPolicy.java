@@ -0,0 +1,247 @@
+package org.diro.dirosnake.ai;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+
+import java.util.Arrays;
+
+/**
+ * Pilote automatique : suit le plus court chemin (parcours en largeur) de la tête vers la donnée, mais seulement
+ * si un S.N.A.K.E. virtuel qui le suit jusqu'au bout peut encore rejoindre sa queue. Sinon il choisit la case
+ * voisine d'où la queue reste atteignable et qui garde le plus d'espace libre.
+ * Les cellules sont indexées par (row * cols + col) et toutes les recherches partagent les mêmes tableaux :
+ * une marque de visite incrémentée à chaque recherche évite de les remettre à zéro, et aucune décision n'alloue.
+ */
+public class PathfinderPolicy implements SnakePolicy {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    private int cols = 0;
+    private int rows = 0;
+    private int[] queue = new int[0];
+    private int[] parent = new int[0];
+    private int[] visited = new int[0];
+    private int stamp = 0;
+    // Cellules du S.N.A.K.E. virtuel, marquées comme "visited".
+    private int[] virtualBody = new int[0];
+    private int virtualStamp = 0;
+    private boolean virtual = false;
+
+    // Résultat de la dernière recherche.
+    private boolean reached;
+    private int reachedCount;
+    private int tailTarget;
+
+    @Override
+    public Directions decide(SnakeGame game) {
+        allocate(game.getCols(), game.getRows());
+
+        OccupancyGrid grid = game.getGrid();
+        SnakeBody body = game.getBody();
+        int head = cell(body.getHeadCol(), body.getHeadRow());
+        int tail = cell(body.getCol(body.size() - 1), body.getRow(body.size() - 1));
+        // La queue libère sa cellule au prochain pas, sauf si le S.N.A.K.E. grandit.
+        int released = body.isGrowing() ? -1 : tail;
+        Directions backwards = body.size() > 1 ? game.getDirection().opposite() : null;
+
+        int data = game.getDataCell();
+        if (data >= 0) {
+            search(grid, head, data, released, true);
+            if (reached) {
+                int next = firstStep(head, data);
+                Directions direction = directionTo(head, next);
+                if (direction != backwards && safeToEat(body, head, data)) {
+                    return direction;
+                }
+            }
+        }
+
+        // Pas de chemin sûr vers la donnée : on garde la queue en vue, ou à défaut le plus d'espace possible.
+        Directions best = game.getDirection();
+        int bestScore = -1;
+        for (Directions direction : DIRECTIONS) {
+            if (direction == backwards) {
+                continue;
+            }
+            int next = neighbour(head, direction);
+            if (next < 0 || !isFree(grid, next, released)) {
+                continue;
+            }
+
+            // Suivre la queue par le plus long détour laisse au corps le temps de libérer un chemin vers la donnée.
+            int score;
+            if (tailReachableAfter(grid, body, next, released)) {
+                score = cols * rows + pathLength(next, tailTarget);
+            } else {
+                search(grid, next, -1, released, false);
+                score = reachedCount;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Fait suivre au S.N.A.K.E. virtuel le chemin trouvé jusqu'à la donnée, puis vérifie qu'il peut encore
+     * rejoindre sa queue : sinon, manger le mènerait dans un cul-de-sac.
+     */
+    private boolean safeToEat(SnakeBody body, int head, int data) {
+        int size = body.size();
+        nextVirtualStamp();
+
+        // Le nouveau corps : le chemin (de la donnée vers la tête) puis l'ancien corps, tronqué à la même longueur.
+        int length = 0;
+        int tail = data;
+        for (int current = data; current != head && length < size; current = parent[current]) {
+            virtualBody[current] = virtualStamp;
+            tail = current;
+            length++;
+        }
+        for (int i = 0; length < size; i++, length++) {
+            tail = cell(body.getCol(i), body.getRow(i));
+            virtualBody[tail] = virtualStamp;
+        }
+
+        virtual = true;
+        search(null, data, tail, -1, true);
+        virtual = false;
+        return reached;
+    }
+
+    /** Vrai si, une fois la tête en "next", un chemin mène encore de la tête à la nouvelle queue. */
+    private boolean tailReachableAfter(OccupancyGrid grid, SnakeBody body, int next, int released) {
+        int size = body.size();
+        int newTail;
+        if (released < 0) {
+            newTail = cell(body.getCol(size - 1), body.getRow(size - 1));
+        } else if (size > 1) {
+            newTail = cell(body.getCol(size - 2), body.getRow(size - 2));
+        } else {
+            tailTarget = next;
+            return true;
+        }
+
+        tailTarget = newTail;
+        search(grid, next, newTail, released, true);
+        return reached;
+    }
+
+    /**
+     * Parcours en largeur depuis "start". Une cellule est franchissable si elle est libre, si c'est la cellule
+     * libérée par la queue ou si c'est la cible. Remplit {@link #reached} et {@link #reachedCount}.
+     */
+    private void search(OccupancyGrid grid, int start, int target, int released, boolean stopAtTarget) {
+        nextStamp();
+        int read = 0;
+        int write = 0;
+        queue[write++] = start;
+        visited[start] = stamp;
+        parent[start] = start;
+        reached = start == target;
+        reachedCount = 1;
+
+        while (read < write && !(reached && stopAtTarget)) {
+            int current = queue[read++];
+            for (Directions direction : DIRECTIONS) {
+                int next = neighbour(current, direction);
+                if (next < 0 || visited[next] == stamp) {
+                    continue;
+                }
+                if (next != target && !isFree(grid, next, released)) {
+                    continue;
+                }
+
+                visited[next] = stamp;
+                parent[next] = current;
+                queue[write++] = next;
+                reachedCount++;
+                if (next == target) {
+                    reached = true;
+                    if (stopAtTarget) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int firstStep(int start, int target) {
+        int current = target;
+        while (parent[current] != start) {
+            current = parent[current];
+        }
+        return current;
+    }
+
+    private int pathLength(int start, int target) {
+        int length = 0;
+        for (int current = target; current != start; current = parent[current]) {
+            length++;
+        }
+        return length;
+    }
+
+    private boolean isFree(OccupancyGrid grid, int cell, int released) {
+        if (virtual) {
+            return virtualBody[cell] != virtualStamp;
+        }
+        return cell == released || !grid.isCellOccupied(cell);
+    }
+
+    private int neighbour(int cell, Directions direction) {
+        int col = cell % cols + direction.dx();
+        int row = cell / cols + direction.dy();
+        if (col < 0 || row < 0 || col >= cols || row >= rows) {
+            return -1;
+        }
+        return cell(col, row);
+    }
+
+    private Directions directionTo(int from, int to) {
+        if (to == from + cols) {
+            return Directions.DOWN;
+        }
+        if (to == from - cols) {
+            return Directions.UP;
+        }
+        return to > from ? Directions.RIGHT : Directions.LEFT;
+    }
+
+    private int cell(int col, int row) {
+        return row * cols + col;
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+    }
+
+    private void nextVirtualStamp() {
+        if (++virtualStamp == Integer.MAX_VALUE) {
+            Arrays.fill(virtualBody, 0);
+            virtualStamp = 1;
+        }
+    }
+
+    private void allocate(int cols, int rows) {
+        if (this.cols == cols && this.rows == rows) {
+            return;
+        }
+        this.cols = cols;
+        this.rows = rows;
+        queue = new int[cols * rows];
+        parent = new int[cols * rows];
+        visited = new int[cols * rows];
+        virtualBody = new int[cols * rows];
+        stamp = 0;
+        virtualStamp = 0;
+    }
+}
@@ -0,0 +1,143 @@
+package org.diro.dirosnake.batch;
+
+import org.diro.dirosnake.ai.GreedyPolicy;
+import org.diro.dirosnake.ai.HamiltonianPolicy;
+import org.diro.dirosnake.ai.PathfinderPolicy;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Joue un lot de parties indépendantes sur tous les coeurs, sans fenêtre. La partie "i" utilise la graine
+ * (seed + i), les résultats ne dépendent donc ni du nombre de fils ni du découpage en tâches.
+ *
+ * java -cp target/classes org.diro.dirosnake.batch.BatchRunner --games 100000 --cols 16 --rows 16 --policy greedy
+ */
+public class BatchRunner {
+
+    private final int cols;
+    private final int rows;
+    private final long maxTicks;
+    private final Supplier<SnakePolicy> policies;
+
+    public BatchRunner(int cols, int rows, long maxTicks, Supplier<SnakePolicy> policies) {
+        this.cols = cols;
+        this.rows = rows;
+        this.maxTicks = maxTicks;
+        this.policies = policies;
+    }
+
+    public BatchStats run(int games, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int chunks = Math.min(games, threads * 8);
+            List<Callable<BatchStats>> tasks = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = (int) ((long) games * chunk / chunks);
+                int to = (int) ((long) games * (chunk + 1) / chunks);
+                tasks.add(() -> play(from, to, seed));
+            }
+
+            BatchStats total = new BatchStats(cols * rows);
+            for (Future<BatchStats> result : pool.invokeAll(tasks)) {
+                total.merge(result.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch game failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private BatchStats play(int from, int to, long seed) {
+        SnakeGame game = new SnakeGame(cols, rows, seed);
+        SnakePolicy policy = policies.get();
+        BatchStats stats = new BatchStats(cols * rows);
+
+        for (int i = from; i < to; i++) {
+            game.reset(seed + i);
+            while (!game.isOver() && game.getTicks() < maxTicks) {
+                game.setDirection(policy.decide(game));
+                game.tick();
+            }
+            stats.record(game);
+        }
+        return stats;
+    }
+
+    public static void main(String[] args) {
+        int games = 10_000;
+        int cols = 16;
+        int rows = 16;
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxTicks = -1;
+        String policy = "greedy";
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "--cols":
+                    cols = Integer.parseInt(value);
+                    break;
+                case "--rows":
+                    rows = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--max-ticks":
+                    maxTicks = Long.parseLong(value);
+                    break;
+                case "--policy":
+                    policy = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (maxTicks < 0) {
+            // Assez pour remplir le plateau en le parcourant plusieurs fois.
+            maxTicks = 4L * cols * rows * cols * rows;
+        }
+
+        Supplier<SnakePolicy> policies;
+        switch (policy) {
+            case "greedy":
+                policies = GreedyPolicy::new;
+                break;
+            case "path":
+                policies = PathfinderPolicy::new;
+                break;
+            case "cycle":
+                policies = HamiltonianPolicy::new;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policy);
+        }
+
+        BatchRunner runner = new BatchRunner(cols, rows, maxTicks, policies);
+        System.out.printf("%d games on %dx%d with %d threads (%s)%n", games, cols, rows, threads, policy);
+
+        long start = System.nanoTime();
+        BatchStats stats = runner.run(games, seed, threads);
+        stats.print(System.out, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,110 @@
+package org.diro.dirosnake.batch;
+
+import org.diro.dirosnake.core.GameOutcome;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.io.PrintStream;
+
+/**
+ * Statistiques cumulées d'un lot de parties. Chaque tâche remplit sa propre instance, qui sont ensuite
+ * fusionnées : aucune synchronisation n'est nécessaire pendant les parties.
+ */
+public class BatchStats {
+
+    // Les durées sont regroupées par puissance de deux : [1, 2), [2, 4), [4, 8), ...
+    private static final int LENGTH_BUCKETS = 64;
+
+    private final long[] scoreCounts;
+    private final long[] lengthCounts = new long[LENGTH_BUCKETS];
+    private final long[] outcomeCounts = new long[GameOutcome.values().length];
+    private long games = 0;
+    private long ticks = 0;
+    private long timeouts = 0;
+    private long scoreSum = 0;
+
+    public BatchStats(int maxScore) {
+        this.scoreCounts = new long[maxScore + 1];
+    }
+
+    public void record(SnakeGame game) {
+        games++;
+        ticks += game.getTicks();
+        scoreSum += game.getScore();
+        scoreCounts[Math.min(game.getScore(), scoreCounts.length - 1)]++;
+        lengthCounts[63 - Long.numberOfLeadingZeros(Math.max(1, game.getTicks()))]++;
+
+        if (game.isOver()) {
+            outcomeCounts[game.getOutcome().ordinal()]++;
+        } else {
+            timeouts++;
+        }
+    }
+
+    public void merge(BatchStats other) {
+        for (int i = 0; i < scoreCounts.length; i++) {
+            scoreCounts[i] += other.scoreCounts[i];
+        }
+        for (int i = 0; i < LENGTH_BUCKETS; i++) {
+            lengthCounts[i] += other.lengthCounts[i];
+        }
+        for (int i = 0; i < outcomeCounts.length; i++) {
+            outcomeCounts[i] += other.outcomeCounts[i];
+        }
+        games += other.games;
+        ticks += other.ticks;
+        timeouts += other.timeouts;
+        scoreSum += other.scoreSum;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Score sous lequel se trouve la fraction "p" (entre 0 et 1) des parties. */
+    public int scorePercentile(double p) {
+        long rank = (long) Math.ceil(p * games);
+        long seen = 0;
+        for (int score = 0; score < scoreCounts.length; score++) {
+            seen += scoreCounts[score];
+            if (seen >= rank && seen > 0) {
+                return score;
+            }
+        }
+        return scoreCounts.length - 1;
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("games: %d  ticks: %d  time: %.2f s%n", games, ticks, seconds);
+        out.printf("throughput: %.0f ticks/s  %.0f games/s%n", ticks / seconds, games / seconds);
+
+        out.printf("score: mean %.2f  p50 %d  p90 %d  p99 %d  max %d%n",
+                games == 0 ? 0.0 : (double) scoreSum / games,
+                scorePercentile(0.50), scorePercentile(0.90), scorePercentile(0.99), scorePercentile(1.0));
+
+        out.print("outcomes:");
+        for (GameOutcome outcome : GameOutcome.values()) {
+            if (outcome != GameOutcome.RUNNING) {
+                out.printf("  %s %d", outcome, outcomeCounts[outcome.ordinal()]);
+            }
+        }
+        out.printf("  TIMEOUT %d%n", timeouts);
+
+        out.println("game length (ticks):");
+        long maxCount = 1;
+        for (long count : lengthCounts) {
+            maxCount = Math.max(maxCount, count);
+        }
+        for (int i = 0; i < LENGTH_BUCKETS; i++) {
+            if (lengthCounts[i] == 0) {
+                continue;
+            }
+            int bar = (int) (40 * lengthCounts[i] / maxCount);
+            out.printf("  [%8d, %8d) %9d %s%n", 1L << i, 1L << (i + 1), lengthCounts[i], "#".repeat(Math.max(1, bar)));
+        }
+    }
+}
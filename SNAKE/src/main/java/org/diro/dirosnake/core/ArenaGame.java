@@ -0,0 +1,342 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+import java.util.Random;
+
+/**
+ * Arène : plusieurs S.N.A.K.E. et plusieurs données sur un même plateau. Tous les corps marquent la même
+ * {@link OccupancyGrid}, qui sert de table de hachage spatiale : après le déplacement, une tête est en
+ * collision (avec un corps ou une autre tête) dès que sa cellule porte plus d'une marque. La phase de
+ * collision coûte donc O(nombre de têtes), peu importe la longueur totale des corps.
+ *
+ * Un tick se joue en phases, pour que l'ordre des S.N.A.K.E. n'ait aucune importance :
+ * décisions, murs, retrait de toutes les queues, avancée de toutes les têtes, collisions, données, morts.
+ * Les collisions du tick sont signalées à la fin, une fois toutes les phases jouées (voir {@link CollisionListener}).
+ */
+public class ArenaGame {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+    // Les corps d'une arène partent petits : leur tampon double au besoin au lieu de couvrir tout le plateau.
+    private static final int INITIAL_BODY_CAPACITY = 64;
+
+    private final OccupancyGrid grid;
+    private final Random random;
+    private final SnakeBody[] bodies;
+    private final Directions[] directions;
+    private final ArenaPolicy[] policies;
+    private final boolean[] alive;
+    private final boolean[] moving;
+    private final boolean[] dying;
+    private final boolean[] ate;
+    private final Collision[] collisions;
+    private final int[] nextCols;
+    private final int[] nextRows;
+    private final int[] scores;
+    private final int[] deaths;
+
+    // Données : leurs cellules, et pour chaque cellule (indice de la donnée + 1), ou 0.
+    private final int[] dataCells;
+    private final int[] dataAt;
+
+    private CollisionListener collisionListener;
+    private boolean respawn = true;
+    private long ticks = 0;
+
+    public ArenaGame(int cols, int rows, int snakes, int dataCount, Random random) {
+        this.grid = new OccupancyGrid(cols, rows);
+        this.random = random;
+        this.bodies = new SnakeBody[snakes];
+        this.directions = new Directions[snakes];
+        this.policies = new ArenaPolicy[snakes];
+        this.alive = new boolean[snakes];
+        this.moving = new boolean[snakes];
+        this.dying = new boolean[snakes];
+        this.ate = new boolean[snakes];
+        this.collisions = new Collision[snakes];
+        this.nextCols = new int[snakes];
+        this.nextRows = new int[snakes];
+        this.scores = new int[snakes];
+        this.deaths = new int[snakes];
+        this.dataCells = new int[dataCount];
+        this.dataAt = new int[cols * rows];
+
+        for (int i = 0; i < snakes; i++) {
+            bodies[i] = new SnakeBody(grid, INITIAL_BODY_CAPACITY);
+            collisions[i] = Collision.NONE;
+        }
+    }
+
+    public ArenaGame(int cols, int rows, int snakes, int dataCount, long seed) {
+        this(cols, rows, snakes, dataCount, new Random(seed));
+    }
+
+    /** Recommence avec une nouvelle graine, pour rejouer exactement la même arène. */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        reset();
+    }
+
+    public void reset() {
+        for (SnakeBody body : bodies) {
+            body.release();
+        }
+        grid.clear();
+        for (int k = 0; k < dataCells.length; k++) {
+            if (dataCells[k] >= 0) {
+                dataAt[dataCells[k]] = 0;
+            }
+            dataCells[k] = -1;
+        }
+        ticks = 0;
+
+        for (int i = 0; i < bodies.length; i++) {
+            alive[i] = false;
+            collisions[i] = Collision.NONE;
+            scores[i] = 0;
+            deaths[i] = 0;
+            spawn(i);
+        }
+        for (int k = 0; k < dataCells.length; k++) {
+            spawnData(k);
+        }
+    }
+
+    /** Joue un tick pour tous les S.N.A.K.E. vivants. */
+    public void tick() {
+        int snakes = bodies.length;
+
+        if (respawn) {
+            for (int i = 0; i < snakes; i++) {
+                if (!alive[i]) {
+                    spawn(i);
+                }
+            }
+        }
+
+        for (int i = 0; i < snakes; i++) {
+            moving[i] = false;
+            dying[i] = false;
+            ate[i] = false;
+            collisions[i] = Collision.NONE;
+            if (alive[i] && policies[i] != null) {
+                directions[i] = policies[i].decide(this, i);
+            }
+        }
+        ticks++;
+
+        // Murs : le S.N.A.K.E. ne bouge pas et meurt.
+        for (int i = 0; i < snakes; i++) {
+            if (!alive[i]) {
+                continue;
+            }
+            SnakeBody body = bodies[i];
+            int col = body.getHeadCol() + directions[i].dx();
+            int row = body.getHeadRow() + directions[i].dy();
+            if (grid.contains(col, row)) {
+                nextCols[i] = col;
+                nextRows[i] = row;
+                moving[i] = true;
+            } else {
+                dying[i] = true;
+                collisions[i] = Collision.WALL;
+            }
+        }
+
+        for (int i = 0; i < snakes; i++) {
+            if (moving[i]) {
+                bodies[i].retract();
+            }
+        }
+        for (int i = 0; i < snakes; i++) {
+            if (moving[i]) {
+                bodies[i].extend(nextCols[i], nextRows[i]);
+            }
+        }
+
+        // Collisions : une seule lecture de la grille par tête. Deux têtes dans la même cellule meurent toutes les deux.
+        for (int i = 0; i < snakes; i++) {
+            if (moving[i] && grid.count(nextCols[i], nextRows[i]) > 1) {
+                dying[i] = true;
+                collisions[i] = Collision.BODY;
+            }
+        }
+
+        for (int i = 0; i < snakes; i++) {
+            if (!moving[i] || dying[i]) {
+                continue;
+            }
+            int cell = nextRows[i] * grid.getCols() + nextCols[i];
+            int data = dataAt[cell] - 1;
+            if (data >= 0) {
+                ate[i] = true;
+                collisions[i] = Collision.DATA;
+                scores[i]++;
+                bodies[i].grow();
+                dataAt[cell] = 0;
+                spawnData(data);
+            }
+        }
+
+        for (int i = 0; i < snakes; i++) {
+            if (dying[i]) {
+                bodies[i].release();
+                alive[i] = false;
+                deaths[i]++;
+            }
+        }
+
+        for (int k = 0; k < dataCells.length; k++) {
+            if (dataCells[k] < 0) {
+                spawnData(k);
+            }
+        }
+
+        if (collisionListener != null) {
+            for (int i = 0; i < snakes; i++) {
+                if (collisions[i] != Collision.NONE) {
+                    collisionListener.onCollision(i, collisions[i]);
+                }
+            }
+        }
+    }
+
+    private void spawn(int snake) {
+        int cell = grid.randomFreeCell(random, dataCells);
+        if (cell < 0) {
+            // Plus aucune cellule libre sans donnée : on réessaiera au prochain tick.
+            return;
+        }
+        bodies[snake].place(cell % grid.getCols(), cell / grid.getCols());
+        directions[snake] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        alive[snake] = true;
+    }
+
+    private void spawnData(int data) {
+        // Les données ne marquent pas la grille : le tirage exclut les cellules des autres données, comme
+        // SnakeGame, sans réessayer. -1 seulement si aucune cellule libre ne reste.
+        int cell = grid.randomFreeCell(random, dataCells);
+        dataCells[data] = cell;
+        if (cell >= 0) {
+            dataAt[cell] = data + 1;
+        }
+    }
+
+    /**
+     * Empreinte de l'état visible (tick, données, cellules de chaque corps de la tête à la queue). Un miroir
+     * réseau de l'arène calcule la même, pour vérifier qu'il n'a pas dérivé.
+     */
+    public long stateHash() {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + ticks;
+        for (int cell : dataCells) {
+            hash = 31 * hash + cell;
+        }
+        for (SnakeBody body : bodies) {
+            hash = 31 * hash + body.size();
+            for (int i = 0; i < body.size(); i++) {
+                hash = 31 * hash + (long) body.getRow(i) * grid.getCols() + body.getCol(i);
+            }
+        }
+        return hash;
+    }
+
+    /** Appelé à chaque collision, à la fin du tick ; null pour n'en signaler aucune. */
+    public void setCollisionListener(CollisionListener collisionListener) {
+        this.collisionListener = collisionListener;
+    }
+
+    public void setPolicy(int snake, ArenaPolicy policy) {
+        policies[snake] = policy;
+    }
+
+    /** Si vrai (par défaut), un S.N.A.K.E. mort réapparaît au tick suivant sur une cellule libre. */
+    public void setRespawn(boolean respawn) {
+        this.respawn = respawn;
+    }
+
+    public int getSnakeCount() {
+        return bodies.length;
+    }
+
+    public SnakeBody getBody(int snake) {
+        return bodies[snake];
+    }
+
+    public Directions getDirection(int snake) {
+        return directions[snake];
+    }
+
+    public void setDirection(int snake, Directions direction) {
+        directions[snake] = direction;
+    }
+
+    public boolean isAlive(int snake) {
+        return alive[snake];
+    }
+
+    /** Vrai si le S.N.A.K.E. est mort au dernier tick. */
+    public boolean hasDied(int snake) {
+        return dying[snake];
+    }
+
+    public boolean hasMoved(int snake) {
+        return moving[snake] && !dying[snake];
+    }
+
+    public boolean hasEatenData(int snake) {
+        return ate[snake];
+    }
+
+    /** Collision du S.N.A.K.E. au dernier tick. */
+    public Collision getCollision(int snake) {
+        return collisions[snake];
+    }
+
+    public int getScore(int snake) {
+        return scores[snake];
+    }
+
+    public int getDeaths(int snake) {
+        return deaths[snake];
+    }
+
+    public int getAliveCount() {
+        int count = 0;
+        for (boolean a : alive) {
+            if (a) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    public int getCols() {
+        return grid.getCols();
+    }
+
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    public int getDataCount() {
+        return dataCells.length;
+    }
+
+    /** Cellule (row * cols + col) de la donnée "data", ou -1 si elle n'a pas pu être placée. */
+    public int getDataCell(int data) {
+        return dataCells[data];
+    }
+
+    public boolean isData(int cell) {
+        return dataAt[cell] != 0;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
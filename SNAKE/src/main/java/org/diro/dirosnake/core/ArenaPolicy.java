@@ -0,0 +1,13 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+/**
+ * Source de directions d'un S.N.A.K.E. de l'arène : clavier, intelligence artificielle ou piste enregistrée.
+ */
+@FunctionalInterface
+public interface ArenaPolicy {
+
+    /** Direction du S.N.A.K.E. numéro "snake" pour le prochain tick. */
+    Directions decide(ArenaGame arena, int snake);
+}
@@ -0,0 +1,9 @@
+package org.diro.dirosnake.core;
+
+/** Ce que la tête d'un S.N.A.K.E. a rencontré pendant un tick. */
+public enum Collision {
+    NONE,
+    DATA,
+    BODY,
+    WALL
+}
@@ -0,0 +1,12 @@
+package org.diro.dirosnake.core;
+
+/**
+ * Reçoit les collisions d'un tick, sur le fil qui l'a joué, une fois les règles appliquées (score, croissance,
+ * issue de la partie). {@link Collision#NONE} n'est jamais signalée.
+ */
+@FunctionalInterface
+public interface CollisionListener {
+
+    /** "snake" vaut 0 pour une partie classique, le numéro du S.N.A.K.E. dans une arène. */
+    void onCollision(int snake, Collision collision);
+}
@@ -0,0 +1,65 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+import java.util.Arrays;
+
+/**
+ * Piste de directions d'un S.N.A.K.E. de l'arène : seuls les changements sont gardés, avec leur tick, dans
+ * deux tableaux primitifs qui doublent au besoin. La même piste se rejoue ensuite comme une source de directions.
+ */
+public class DirectionTrack implements ArenaPolicy {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    private long[] ticks = new long[16];
+    private byte[] directions = new byte[16];
+    private int size = 0;
+    private Directions last = null;
+    private int cursor = 0;
+    private Directions playing = null;
+
+    /** Note la direction choisie avant le tick "tick". Ne garde rien si elle ne change pas. */
+    public void record(long tick, Directions direction) {
+        if (direction == last) {
+            return;
+        }
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            directions = Arrays.copyOf(directions, size * 2);
+        }
+        ticks[size] = tick;
+        directions[size] = (byte) direction.ordinal();
+        size++;
+        last = direction;
+    }
+
+    public void clear() {
+        size = 0;
+        last = null;
+        rewind();
+    }
+
+    /** Recommence la lecture au début de la piste. */
+    public void rewind() {
+        cursor = 0;
+        playing = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rejoue la direction enregistrée pour ce tick. Elle reste valable jusqu'au changement suivant, même si le
+     * S.N.A.K.E. est réapparu entre-temps avec une autre direction.
+     */
+    @Override
+    public Directions decide(ArenaGame arena, int snake) {
+        long tick = arena.getTicks();
+        while (cursor < size && ticks[cursor] <= tick) {
+            playing = DIRECTIONS[directions[cursor++]];
+        }
+        return playing == null ? arena.getDirection(snake) : playing;
+    }
+}
@@ -0,0 +1,52 @@
+package org.diro.dirosnake.core;
+
+/**
+ * Ordonnanceur à pas fixe. Le temps réel de chaque image est accumulé et converti en un nombre entier de
+ * ticks, ce qui garde la vitesse du jeu constante quelle que soit la fréquence d'affichage. Après une longue
+ * pause (ramasse-miettes, fenêtre déplacée), au plus "maxStepsPerFrame" ticks sont rattrapés et le reste du
+ * retard est abandonné plutôt que de faire accélérer le S.N.A.K.E.
+ */
+public class FixedTimestep {
+
+    private final double step;
+    private final int maxStepsPerFrame;
+    private double accumulator = 0;
+    private long droppedSteps = 0;
+
+    public FixedTimestep(double stepSeconds, int maxStepsPerFrame) {
+        this.step = stepSeconds;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /** Ajoute le temps écoulé depuis la dernière image et retourne le nombre de ticks à simuler. */
+    public int advance(double elapsedSeconds) {
+        accumulator += Math.max(0, elapsedSeconds);
+
+        int steps = (int) (accumulator / step);
+        if (steps > maxStepsPerFrame) {
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= steps * step;
+        }
+        return steps;
+    }
+
+    /** Fraction (entre 0 et 1) du prochain tick déjà écoulée, pour interpoler l'affichage. */
+    public double alpha() {
+        return Math.min(1.0, accumulator / step);
+    }
+
+    public void reset() {
+        accumulator = 0;
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
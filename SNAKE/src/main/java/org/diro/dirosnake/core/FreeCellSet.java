@@ -0,0 +1,68 @@
+package org.diro.dirosnake.core;
+
+import java.util.Random;
+
+/**
+ * Ensemble des cellules libres du plateau. Les cellules sont gardées dans un tableau dense et chaque
+ * cellule connaît sa position dans ce tableau : l'ajout, le retrait (échange avec la dernière) et le
+ * tirage aléatoire uniforme coûtent tous O(1).
+ */
+public final class FreeCellSet {
+
+    private final int[] cells;
+    private final int[] positions;
+    private int size = 0;
+
+    public FreeCellSet(int capacity) {
+        this.cells = new int[capacity];
+        this.positions = new int[capacity];
+        fill();
+    }
+
+    /** Remet toutes les cellules dans l'ensemble. */
+    public void fill() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            positions[i] = i;
+        }
+        size = cells.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    public void add(int cell) {
+        if (contains(cell)) {
+            return;
+        }
+        cells[size] = cell;
+        positions[cell] = size;
+        size++;
+    }
+
+    public void remove(int cell) {
+        int position = positions[cell];
+        if (position < 0) {
+            return;
+        }
+        size--;
+        int last = cells[size];
+        cells[position] = last;
+        positions[last] = position;
+        positions[cell] = -1;
+    }
+
+    /** Tire une cellule libre au hasard, ou -1 si le plateau est plein. */
+    public int pick(Random random) {
+        return size == 0 ? -1 : cells[random.nextInt(size)];
+    }
+}
@@ -0,0 +1,8 @@
+package org.diro.dirosnake.core;
+
+public enum GameOutcome {
+    RUNNING,
+    HIT_WALL,
+    HIT_BODY,
+    BOARD_FULL
+}
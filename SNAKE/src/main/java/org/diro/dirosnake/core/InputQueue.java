@@ -0,0 +1,117 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+/**
+ * File bornée des directions demandées par le joueur. Chaque tick n'en consomme qu'une seule, ce qui garde
+ * les virages rapides (deux touches dans le même tick) au lieu de ne garder que la dernière. Une direction
+ * est validée contre la précédente dans la file à l'ajout, puis contre la direction réellement appliquée
+ * au tick : un demi-tour n'est jamais possible. Les tableaux sont alloués une fois pour toutes.
+ */
+public class InputQueue implements SnakePolicy {
+
+    private final Directions[] directions;
+    private final long[] timestamps;
+    private int head = 0;
+    private int size = 0;
+
+    private Directions committed = Directions.RIGHT;
+    private long dropped = 0;
+    private long applied = 0;
+    private long lastLatency = 0;
+    private long maxLatency = 0;
+    private long totalLatency = 0;
+
+    public InputQueue(int capacity) {
+        this.directions = new Directions[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    public void reset(Directions direction) {
+        head = 0;
+        size = 0;
+        committed = direction;
+    }
+
+    /** Oublie les directions en attente, par exemple quand le pilote automatique prend la main. */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** Ajoute une direction demandée. Retourne faux si elle est ignorée (inutile, demi-tour ou file pleine). */
+    public boolean offer(Directions direction) {
+        Directions last = size == 0 ? committed : directions[(head + size - 1) % directions.length];
+        if (direction == last || direction == last.opposite()) {
+            return false;
+        }
+        if (size == directions.length) {
+            dropped++;
+            return false;
+        }
+
+        int slot = (head + size) % directions.length;
+        directions[slot] = direction;
+        timestamps[slot] = System.nanoTime();
+        size++;
+        return true;
+    }
+
+    /** Consomme au plus une direction valide pour le prochain tick. */
+    @Override
+    public Directions decide(SnakeGame game) {
+        return next(game.getDirection());
+    }
+
+    /** Comme {@link #decide(SnakeGame)}, à partir de la direction actuelle du S.N.A.K.E. (utile dans une arène). */
+    public Directions next(Directions current) {
+        committed = current;
+
+        while (size > 0) {
+            Directions direction = directions[head];
+            long timestamp = timestamps[head];
+            head = (head + 1) % directions.length;
+            size--;
+
+            if (direction != committed && direction != committed.opposite()) {
+                recordLatency(System.nanoTime() - timestamp);
+                committed = direction;
+                break;
+            }
+            dropped++;
+        }
+        return committed;
+    }
+
+    private void recordLatency(long latency) {
+        applied++;
+        lastLatency = latency;
+        maxLatency = Math.max(maxLatency, latency);
+        totalLatency += latency;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    public long getAppliedCount() {
+        return applied;
+    }
+
+    /** Délai entre l'appui et le tick qui l'applique, en nanosecondes. */
+    public long getLastLatencyNanos() {
+        return lastLatency;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatency;
+    }
+
+    public long getMeanLatencyNanos() {
+        return applied == 0 ? 0 : totalLatency / applied;
+    }
+}
@@ -0,0 +1,106 @@
+package org.diro.dirosnake.core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Grille d'occupation du plateau. Chaque cellule est indexée par (row * cols + col) et garde le nombre
+ * de segments du S.N.A.K.E. qui s'y trouvent, ce qui rend les tests de collision et d'apparition en O(1).
+ * Les cellules vides sont aussi gardées dans un {@link FreeCellSet} pour tirer une cellule libre sans réessayer.
+ */
+public class OccupancyGrid {
+
+    private final int cols;
+    private final int rows;
+    private final int[] counts;
+    private final FreeCellSet freeCells;
+
+    public OccupancyGrid(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.counts = new int[cols * rows];
+        this.freeCells = new FreeCellSet(cols * rows);
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public boolean contains(int col, int row) {
+        return col >= 0 && row >= 0 && col < cols && row < rows;
+    }
+
+    public boolean isOccupied(int col, int row) {
+        return contains(col, row) && counts[row * cols + col] > 0;
+    }
+
+    /** Comme {@link #isOccupied(int, int)} pour une cellule déjà indexée (row * cols + col) et valide. */
+    public boolean isCellOccupied(int cell) {
+        return counts[cell] > 0;
+    }
+
+    public int count(int col, int row) {
+        return contains(col, row) ? counts[row * cols + col] : 0;
+    }
+
+    /** Comme {@link #count(int, int)} pour une cellule déjà indexée (row * cols + col) et valide. */
+    public int countCell(int cell) {
+        return counts[cell];
+    }
+
+    public void occupy(int col, int row) {
+        if (contains(col, row)) {
+            int cell = row * cols + col;
+            if (counts[cell]++ == 0) {
+                freeCells.remove(cell);
+            }
+        }
+    }
+
+    public void release(int col, int row) {
+        if (contains(col, row) && counts[row * cols + col] > 0) {
+            int cell = row * cols + col;
+            if (--counts[cell] == 0) {
+                freeCells.add(cell);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        freeCells.fill();
+    }
+
+    public int getFreeCount() {
+        return freeCells.size();
+    }
+
+    /** Tire une cellule libre (row * cols + col) uniformément, ou -1 si le plateau est plein. */
+    public int randomFreeCell(Random random) {
+        return freeCells.pick(random);
+    }
+
+    /**
+     * Tire une cellule libre uniformément parmi celles qui ne sont pas dans "excluded" (les -1 sont ignorés), ou
+     * -1 s'il n'en reste pas. Les cellules exclues sortent de l'ensemble le temps d'un seul tirage : O(exclues),
+     * sans jamais réessayer.
+     */
+    public int randomFreeCell(Random random, int[] excluded) {
+        for (int cell : excluded) {
+            if (cell >= 0) {
+                freeCells.remove(cell);
+            }
+        }
+        int picked = freeCells.pick(random);
+        for (int cell : excluded) {
+            if (cell >= 0 && counts[cell] == 0) {
+                freeCells.add(cell);
+            }
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,159 @@
+package org.diro.dirosnake.core;
+
+/**
+ * Corps du S.N.A.K.E. stocké dans un tampon circulaire de coordonnées de cellules.
+ * Un déplacement n'avance que la tête : la cellule de la queue est libérée, ou conservée
+ * si le S.N.A.K.E. doit grandir. Chaque tick coûte donc O(1) et n'alloue rien.
+ * Plusieurs corps peuvent partager la même grille (arène) ; leur tampon part alors petit et double au besoin.
+ */
+public class SnakeBody {
+
+    private final OccupancyGrid grid;
+    private final int maxCapacity;
+    private int capacity;
+    private int[] cols;
+    private int[] rows;
+
+    private int head = 0;
+    private int size = 0;
+    private int pendingGrowth = 0;
+
+    public SnakeBody(OccupancyGrid grid) {
+        this(grid, grid.getCols() * grid.getRows());
+    }
+
+    public SnakeBody(OccupancyGrid grid, int initialCapacity) {
+        this.grid = grid;
+        this.maxCapacity = grid.getCols() * grid.getRows();
+        this.capacity = Math.max(1, Math.min(initialCapacity, maxCapacity));
+        this.cols = new int[capacity];
+        this.rows = new int[capacity];
+    }
+
+    public void reset(int col, int row) {
+        clear();
+        place(col, row);
+    }
+
+    /** Pose un corps d'un seul segment en (col, row) sans toucher au reste de la grille. Le corps doit être vide. */
+    public void place(int col, int row) {
+        if (size != 0) {
+            throw new IllegalStateException("Body is not empty");
+        }
+        head = 0;
+        pendingGrowth = 0;
+        cols[head] = col;
+        rows[head] = row;
+        size = 1;
+        grid.occupy(col, row);
+    }
+
+    /** Retire tous les segments de la grille partagée et vide le corps. Coûte O(longueur). */
+    public void release() {
+        for (int i = 0; i < size; i++) {
+            grid.release(getCol(i), getRow(i));
+        }
+        head = 0;
+        size = 0;
+        pendingGrowth = 0;
+    }
+
+    public void clear() {
+        grid.clear();
+        head = 0;
+        size = 0;
+        pendingGrowth = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    public int getHeadCol() {
+        return getCol(0);
+    }
+
+    public int getHeadRow() {
+        return getRow(0);
+    }
+
+    /** Colonne du segment à la position "index" (0 = tête). */
+    public int getCol(int index) {
+        return cols[slot(index)];
+    }
+
+    /** Rangée du segment à la position "index" (0 = tête). */
+    public int getRow(int index) {
+        return rows[slot(index)];
+    }
+
+    public void grow() {
+        pendingGrowth++;
+    }
+
+    public boolean isGrowing() {
+        return pendingGrowth > 0 && size < maxCapacity;
+    }
+
+    /**
+     * Avance la tête vers (col, row). Si le S.N.A.K.E. ne grandit pas, la cellule de la queue est libérée.
+     * La nouvelle cellule de la tête est marquée même si elle est déjà occupée, ce qui permet de
+     * détecter une collision avec le corps via la grille.
+     */
+    public void advance(int col, int row) {
+        retract();
+        extend(col, row);
+    }
+
+    /**
+     * Première moitié d'un pas : libère la queue, ou consomme une croissance en attente. Dans une arène, toutes
+     * les queues sont retirées avant qu'une tête n'avance, pour qu'un S.N.A.K.E. puisse suivre la queue d'un autre.
+     */
+    public void retract() {
+        if (isGrowing()) {
+            pendingGrowth--;
+        } else {
+            int tail = slot(size - 1);
+            grid.release(cols[tail], rows[tail]);
+            size--;
+        }
+    }
+
+    /** Seconde moitié d'un pas : la tête entre en (col, row), marquée dans la grille même si la cellule est prise. */
+    public void extend(int col, int row) {
+        if (size == capacity) {
+            enlarge();
+        }
+        head = (head - 1 + capacity) % capacity;
+        cols[head] = col;
+        rows[head] = row;
+        size++;
+        grid.occupy(col, row);
+    }
+
+    private void enlarge() {
+        int newCapacity = (int) Math.min(maxCapacity, (long) capacity * 2);
+        int[] newCols = new int[newCapacity];
+        int[] newRows = new int[newCapacity];
+        for (int i = 0; i < size; i++) {
+            newCols[i] = getCol(i);
+            newRows[i] = getRow(i);
+        }
+        cols = newCols;
+        rows = newRows;
+        capacity = newCapacity;
+        head = 0;
+    }
+
+    private int slot(int index) {
+        return (head + index) % capacity;
+    }
+}
@@ -0,0 +1,230 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+import java.util.Random;
+
+/**
+ * Règles du S.N.A.K.E. en Java pur : plateau, corps, donnée à ramasser, direction et issue de la partie.
+ * Aucune dépendance à FXGL ou JavaFX, une partie peut donc être simulée sur n'importe quel fil d'exécution,
+ * sans fenêtre. Chaque tick coûte O(1) et n'alloue rien.
+ *
+ * Les collisions (donnée, corps, mur) se résolvent en une seule phase par tick : la sortie du plateau, puis une
+ * lecture de la grille et de la cellule de la donnée à l'arrivée de la tête. Elles sont signalées à un
+ * {@link CollisionListener}.
+ */
+public class SnakeGame {
+
+    private final OccupancyGrid grid;
+    private final SnakeBody body;
+    private final Random random;
+
+    private Directions direction = Directions.RIGHT;
+    private GameOutcome outcome = GameOutcome.RUNNING;
+    private int dataCell = -1;
+    private int score = 0;
+    private long ticks = 0;
+    private boolean moved = false;
+    private boolean ateData = false;
+    private Collision collision = Collision.NONE;
+    private CollisionListener collisionListener;
+
+    public SnakeGame(int cols, int rows, Random random) {
+        this.grid = new OccupancyGrid(cols, rows);
+        this.body = new SnakeBody(grid);
+        this.random = random;
+    }
+
+    public SnakeGame(int cols, int rows, long seed) {
+        this(cols, rows, new Random(seed));
+    }
+
+    public void reset() {
+        reset(grid.getCols() / 3, grid.getRows() / 2, Directions.RIGHT);
+    }
+
+    /** Recommence une partie avec une nouvelle graine, pour rejouer exactement la même suite de données. */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        reset();
+    }
+
+    public void reset(int col, int row, Directions direction) {
+        body.reset(col, row);
+        this.direction = direction;
+        outcome = GameOutcome.RUNNING;
+        score = 0;
+        ticks = 0;
+        moved = false;
+        ateData = false;
+        collision = Collision.NONE;
+        dataCell = -1;
+        spawnData();
+    }
+
+    /** Avance la partie d'un pas et retourne son issue. Ne fait rien si la partie est terminée. */
+    public GameOutcome tick() {
+        moved = false;
+        ateData = false;
+        collision = Collision.NONE;
+        if (outcome != GameOutcome.RUNNING) {
+            return outcome;
+        }
+
+        ticks++;
+        moveSnake();
+        if (collision != Collision.NONE && collisionListener != null) {
+            collisionListener.onCollision(0, collision);
+        }
+        return outcome;
+    }
+
+    private void moveSnake() {
+        int col = body.getHeadCol();
+        int row = body.getHeadRow();
+
+        switch (direction) {
+            case UP:
+                row--;
+                break;
+            case DOWN:
+                row++;
+                break;
+            case LEFT:
+                col--;
+                break;
+            case RIGHT:
+                col++;
+                break;
+        }
+
+        if (snakeCollidesScreenEdges(col, row)) {
+            collision = Collision.WALL;
+            outcome = GameOutcome.HIT_WALL;
+            return;
+        }
+
+        body.advance(col, row);
+        moved = true;
+
+        collision = collisionAt(row * grid.getCols() + col);
+        if (collision == Collision.BODY) {
+            outcome = GameOutcome.HIT_BODY;
+        } else if (collision == Collision.DATA) {
+            ateData = true;
+            score++;
+            expendSnake();
+            spawnData();
+        }
+    }
+
+    private boolean snakeCollidesScreenEdges(int col, int row) {
+        return !grid.contains(col, row);
+    }
+
+    private Collision collisionAt(int cell) {
+        // La tête est déjà marquée dans la grille : une deuxième marque signifie qu'elle touche le corps.
+        if (grid.countCell(cell) > 1) {
+            return Collision.BODY;
+        }
+        return cell == dataCell ? Collision.DATA : Collision.NONE;
+    }
+
+    private void expendSnake() {
+        // La queue est conservée au prochain déplacement, le nouveau segment apparaît derrière la tête.
+        body.grow();
+    }
+
+    private void spawnData() {
+        // Tirage direct parmi les cellules libres : aucun essai raté, même quand le plateau est presque plein.
+        dataCell = grid.randomFreeCell(random);
+        if (dataCell < 0) {
+            outcome = GameOutcome.BOARD_FULL;
+        }
+    }
+
+    /** Empreinte de l'état du plateau (corps, donnée, score), pour vérifier qu'une reprise retombe au même endroit. */
+    public long stateHash() {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + dataCell;
+        hash = 31 * hash + score;
+        hash = 31 * hash + outcome.ordinal();
+        for (int i = 0; i < body.size(); i++) {
+            hash = 31 * hash + (long) body.getRow(i) * grid.getCols() + body.getCol(i);
+        }
+        return hash;
+    }
+
+    public Directions getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Directions direction) {
+        this.direction = direction;
+    }
+
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isOver() {
+        return outcome != GameOutcome.RUNNING;
+    }
+
+    /** Vrai si le dernier tick a déplacé le S.N.A.K.E. */
+    public boolean hasMoved() {
+        return moved;
+    }
+
+    /** Collision du dernier tick. */
+    public Collision getCollision() {
+        return collision;
+    }
+
+    /** Appelé à chaque collision ; null pour n'en signaler aucune. */
+    public void setCollisionListener(CollisionListener collisionListener) {
+        this.collisionListener = collisionListener;
+    }
+
+    /** Vrai si la donnée a été ramassée au dernier tick. */
+    public boolean hasEatenData() {
+        return ateData;
+    }
+
+    public SnakeBody getBody() {
+        return body;
+    }
+
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    public int getCols() {
+        return grid.getCols();
+    }
+
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    /** Cellule (row * cols + col) de la donnée, ou -1 s'il n'y en a pas. */
+    public int getDataCell() {
+        return dataCell;
+    }
+
+    public int getDataCol() {
+        return dataCell < 0 ? -1 : dataCell % grid.getCols();
+    }
+
+    public int getDataRow() {
+        return dataCell < 0 ? -1 : dataCell / grid.getCols();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,14 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+
+/**
+ * Source de décisions pour un S.N.A.K.E. : clavier, IA ou reprise d'une partie enregistrée.
+ * Une instance n'est utilisée que par un seul fil d'exécution à la fois.
+ */
+@FunctionalInterface
+public interface SnakePolicy {
+
+    /** Choisit la direction à appliquer au prochain tick. */
+    Directions decide(SnakeGame game);
+}
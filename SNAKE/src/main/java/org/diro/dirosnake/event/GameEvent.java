@@ -0,0 +1,15 @@
+package org.diro.dirosnake.event;
+
+/** Événements d'une partie, publiés sur le {@link GameEventBus} de la partie. */
+public enum GameEvent {
+    /** Une partie commence. */
+    STARTED,
+    /** La partie se termine : publié une seule fois par partie. */
+    GAME_OVER,
+    /** Le joueur demande de recommencer : publié une seule fois par demande. */
+    RESTART,
+    /** Le S.N.A.K.E. mange une donnée : publié à chaque repas. */
+    ATE_DATA,
+    /** Le S.N.A.K.E. grandit d'un segment : publié à chaque repas, après ATE_DATA. */
+    GREW
+}
@@ -0,0 +1,35 @@
+package org.diro.dirosnake.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bus d'événements d'une partie. Les abonnés (menus, audio, mesures) ne sont appelés que lors d'une transition :
+ * plus rien à sonder à chaque image. Tout se passe sur le fil de l'application, sans synchronisation ;
+ * une publication parcourt une liste par type d'événement et n'alloue rien.
+ */
+public class GameEventBus {
+
+    private final List<List<GameEventListener>> listeners = new ArrayList<>();
+
+    public GameEventBus() {
+        for (int i = 0; i < GameEvent.values().length; i++) {
+            listeners.add(new ArrayList<>());
+        }
+    }
+
+    public void subscribe(GameEvent event, GameEventListener listener) {
+        listeners.get(event.ordinal()).add(listener);
+    }
+
+    public void unsubscribe(GameEvent event, GameEventListener listener) {
+        listeners.get(event.ordinal()).remove(listener);
+    }
+
+    public void publish(GameEvent event) {
+        List<GameEventListener> subscribers = listeners.get(event.ordinal());
+        for (int i = 0; i < subscribers.size(); i++) {
+            subscribers.get(i).onEvent(event);
+        }
+    }
+}
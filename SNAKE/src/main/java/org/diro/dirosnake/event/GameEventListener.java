@@ -0,0 +1,6 @@
+package org.diro.dirosnake.event;
+
+@FunctionalInterface
+public interface GameEventListener {
+    void onEvent(GameEvent event);
+}
@@ -2,10 +2,10 @@ package org.diro.dirosnake.menu;
 
 import com.almasb.fxgl.animation.Animation;
 import com.almasb.fxgl.animation.Interpolators;
-import com.almasb.fxgl.app.scene.FXGLMenu;
 import com.almasb.fxgl.app.scene.MenuType;
 import com.almasb.fxgl.core.util.EmptyRunnable;
 import com.almasb.fxgl.dsl.FXGL;
+import javafx.application.Platform;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -13,28 +13,40 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
+import org.diro.dirosnake.AssetCache;
 import org.diro.dirosnake.Constants;
 import org.diro.dirosnake.GameState;
+import org.diro.dirosnake.event.GameEvent;
+import org.diro.dirosnake.scores.GameRecord;
+import org.diro.dirosnake.scores.ScoreStore;
+import org.diro.dirosnake.system.FramePacer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /** [NOTE DU D.I.R.O.]
  * Vous pouvez utiliser cette classe comme référence pour faire le menu principal.
  * Il est possible d'activer le menu en appuyant sur "ESC" après avoir lancé une nouvelle partie.
  */
-public class GameOverMenu extends FXGLMenu {
+public final class GameOverMenu extends SnakeMenu {
 
-    private Animation<?> menuAnimation;
-    private Animation<?> resumeAnimation;
-    private Animation<?> exitAnimation;
-    private Animation<?> restartAnimation;
+    private final Animation<?> menuAnimation;
+    private final CompletableFuture<ScoreStore> scores;
+    private final Supplier<CompletableFuture<Integer>> lastRecord;
+    private long summaryRequest = 0;
     Button resumeButton;
     Button exitButton;
     Button restartButton;
     Text gameOverTitle;
-    private boolean gameOverFlag = false;
+    Text scoreSummary;
 
-    public GameOverMenu() {
-        super(MenuType.GAME_MENU);
-        String transparentProperty = "-fx-background-color: transparent;";
+    public GameOverMenu(GameState state, CompletableFuture<ScoreStore> scores,
+                        Supplier<CompletableFuture<Integer>> lastRecord, FramePacer pacer) {
+        super(MenuType.GAME_MENU, pacer);
+        this.scores = scores;
+        this.lastRecord = lastRecord;
 
         Node background = createBackground();
 
@@ -43,143 +55,101 @@ public class GameOverMenu extends FXGLMenu {
         gameOverTitle.setTranslateY((double)Constants.HEIGHT/4);
         gameOverTitle.setScaleX(6);
         gameOverTitle.setScaleY(6);
+        centerAt(gameOverTitle, 0.5);
+
+        // SCORE SUMMARY
+        scoreSummary = FXGL.getUIFactoryService().newText("");
+        scoreSummary.setTranslateY((double)Constants.HEIGHT/4 + 110);
+        scoreSummary.setScaleX(2);
+        scoreSummary.setScaleY(2);
+        centerAt(scoreSummary, 0.5);
 
         // RESUME BUTTON
-        resumeButton = FXGL.getUIFactoryService().newButton("RESUME");
-        resumeButton.setStyle(transparentProperty);
-        resumeButton.setTranslateY((double)Constants.HEIGHT/4);
-        resumeButton.setFocusTraversable(false);
-        resumeButton.setScaleX(6);
-        resumeButton.setScaleY(6);
-        resumeButton.setOnMouseEntered( event -> {
-            resumeAnimation.start();
-            FXGL.play("codecopen.wav");
-        });
-        resumeButton.setOnMouseExited( event -> {
-            resumeButton.setOpacity(1.0);
-            resumeAnimation.stop();
-        });
-        resumeButton.setOnMouseClicked(event -> {
+        resumeButton = createButton("RESUME", 6, (double)Constants.HEIGHT/4, 0.5, () -> {
             FXGL.getGameController().gotoPlay();
-            FXGL.play("codecover.wav");
+            AssetCache.playSound("codecover.wav");
         });
 
         // EXIT TO MAIN MENU BUTTON
-        exitButton = FXGL.getUIFactoryService().newButton("MAIN MENU");
-        exitButton.setCenterShape(true);
-        exitButton.setStyle(transparentProperty);
-        exitButton.setTranslateY((double)Constants.HEIGHT/2);
-        exitButton.setFocusTraversable(false);
-        exitButton.setScaleX(2);
-        exitButton.setScaleY(2);
-        exitButton.setOnMouseEntered( event -> {
-            exitAnimation.start();
-            FXGL.play("codecopen.wav");
-        });
-        exitButton.setOnMouseExited( event -> {
-            exitButton.setOpacity(1.0);
-            exitAnimation.stop();
-        });
-        exitButton.setOnMouseClicked(event -> {
-            GameState.restartGame = true;
+        exitButton = createButton("MAIN MENU", 2, (double)Constants.HEIGHT/2, 1 / 1.25, () -> {
             FXGL.getGameController().gotoMainMenu();
-            FXGL.play("exit.wav");
+            AssetCache.playSound("exit.wav");
         });
 
         // RESTART BUTTON
-        restartButton = FXGL.getUIFactoryService().newButton("RESTART");
-        restartButton.setStyle(transparentProperty);
-        restartButton.setTranslateY((double)Constants.HEIGHT/2);
-        restartButton.setFocusTraversable(false);
-        restartButton.setScaleX(2);
-        restartButton.setScaleY(2);
-        restartButton.setOnMouseEntered( event -> {
-            restartAnimation.start();
-            FXGL.play("codecopen.wav");
-        });
-        restartButton.setOnMouseExited( event -> {
-            restartButton.setOpacity(1.0);
-            restartAnimation.stop();
-        });
-        restartButton.setOnMouseClicked(event -> {
-            GameState.restartGame = true;
-            FXGL.getGameController().gotoPlay();
-            FXGL.play("found.wav");
+        restartButton = createButton("RESTART", 2, (double)Constants.HEIGHT/2, 0.25, () -> {
+            AssetCache.playSound("found.wav");
+            state.restart();
         });
 
         // ADD NODES TO THE SCENE
-        getContentRoot().getChildren().addAll(background, gameOverTitle, resumeButton, exitButton, restartButton);
+        getContentRoot().getChildren().addAll(background, gameOverTitle, scoreSummary, resumeButton, exitButton, restartButton);
 
         // ANIMATIONS
-        resumeAnimation = createTextAnimation(resumeButton);
-        exitAnimation = createTextAnimation(exitButton);
-        restartAnimation = createTextAnimation(restartButton);
-        menuAnimation = FXGL.animationBuilder()
+        menuAnimation = track(FXGL.animationBuilder()
                 .duration(Duration.seconds(0.66))
                 .interpolator(Interpolators.EXPONENTIAL.EASE_OUT())
                 .scale(getContentRoot())
                 .from(new Point2D(0, 0))
                 .to(new Point2D(1, 1))
-                .build();
+                .build());
+
+        // Le titre et le bouton RESUME ne changent qu'aux transitions de la partie.
+        showPaused();
+        state.getEvents().subscribe(GameEvent.GAME_OVER, event -> showGameOver());
+        state.getEvents().subscribe(GameEvent.STARTED, event -> showPaused());
     }
 
-    private Node createBackground() {
-        Rectangle bg = new Rectangle(Constants.WIDTH, Constants.HEIGHT);
-        bg.setFill(new Color(0.,0.,0.,0.8));
-        return bg;
+    private void showGameOver() {
+        hideNode(resumeButton);
+        showNode(gameOverTitle);
+        hideNode(scoreSummary);
+        // Le résumé attend que la partie soit dans le magasin, qui s'ouvre en tâche de fond. Partie non
+        // enregistrée (arène, scores désactivés) : pas de résumé plutôt que celui d'une autre partie.
+        long request = ++summaryRequest;
+        lastRecord.get().thenAcceptAsync(position -> {
+            String summary = summarizeScores(position);
+            if (request == summaryRequest && !summary.isEmpty()) {
+                scoreSummary.setText(summary);
+                showNode(scoreSummary);
+            }
+        }, Platform::runLater);
     }
 
-    private void hideNode(Node node) {
-        node.setVisible(false);
-        node.setManaged(false);
+    private void showPaused() {
+        summaryRequest++;
+        hideNode(gameOverTitle);
+        hideNode(scoreSummary);
+        showNode(resumeButton);
     }
 
-    private void showNode(Node node) {
-        node.setVisible(true);
-        node.setManaged(true);
+    /** Score de la partie qui vient d'être enregistrée, son rang et le record, ou une chaîne vide. */
+    private String summarizeScores(int position) {
+        // La position n'est connue qu'une fois le magasin ouvert.
+        ScoreStore store = scores.getNow(null);
+        if (store == null || position < 0) {
+            return "";
+        }
+        try {
+            GameRecord last = store.get(position);
+            List<GameRecord> best = store.top(1);
+            return "SCORE " + last.getScore() + "   RANK " + store.rank(last.getScore()) + "/" + store.count()
+                    + "   BEST " + best.get(0).getScore();
+        } catch (IOException e) {
+            return "";
+        }
     }
 
-    private Animation<?> createTextAnimation(Button button) {
-        return FXGL.animationBuilder()
-                .duration(Duration.seconds(0.95))
-                .interpolator(Interpolators.SMOOTH.EASE_IN_OUT())
-                .repeatInfinitely()
-                .autoReverse(true)
-                .animate(button.opacityProperty())
-                .from(1)
-                .to(0.5)
-                .build();
+    private Node createBackground() {
+        Rectangle bg = new Rectangle(Constants.WIDTH, Constants.HEIGHT);
+        bg.setFill(new Color(0.,0.,0.,0.8));
+        return bg;
     }
 
     @Override
     public void onCreate() {
         menuAnimation.setOnFinished(EmptyRunnable.INSTANCE);
         menuAnimation.stop();
-        menuAnimation.start();
-    }
-
-    @Override
-    protected void onUpdate(double tpf) {
-        menuAnimation.onUpdate(tpf);
-        resumeAnimation.onUpdate(tpf);
-        restartAnimation.onUpdate(tpf);
-        exitAnimation.onUpdate(tpf);
-
-        gameOverTitle.setTranslateX((double)Constants.WIDTH/2 - gameOverTitle.getBoundsInLocal().getWidth()/2);
-        resumeButton.setTranslateX((double)Constants.WIDTH/2 - resumeButton.getWidth()/2);
-        exitButton.setTranslateX((double)Constants.WIDTH/1.25 - exitButton.getWidth()/2 );
-        restartButton.setTranslateX((double)Constants.WIDTH/4 - restartButton.getWidth()/2);
-
-        if (GameState.isGameOver && !gameOverFlag) {
-            hideNode(resumeButton);
-            showNode(gameOverTitle);
-            gameOverFlag = true;
-        }
-
-        else if (!GameState.isGameOver) {
-            hideNode(gameOverTitle);
-            showNode(resumeButton);
-            gameOverFlag = false;
-        }
+        play(menuAnimation);
     }
-}
\ No newline at end of file
+}
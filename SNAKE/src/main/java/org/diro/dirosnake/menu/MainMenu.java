@@ -1,16 +1,37 @@
 package org.diro.dirosnake.menu;
 
-import com.almasb.fxgl.app.scene.FXGLMenu;
 import com.almasb.fxgl.app.scene.MenuType;
 import com.almasb.fxgl.dsl.FXGL;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import org.diro.dirosnake.AssetCache;
 import org.diro.dirosnake.Constants;
-import org.w3c.dom.Node;
+import org.diro.dirosnake.system.FramePacer;
 
-public class MainMenu extends FXGLMenu {
+/** Menu principal : le titre, une nouvelle partie ou quitter. Même mécanique que {@link GameOverMenu}. */
+public final class MainMenu extends SnakeMenu {
 
-    public MainMenu() {
-        super(MenuType.MAIN_MENU);
+    public MainMenu(FramePacer pacer) {
+        super(MenuType.MAIN_MENU, pacer);
 
-        //TODO Faire le menu principal ici.
+        Rectangle background = new Rectangle(Constants.WIDTH, Constants.HEIGHT, Color.BLACK);
+
+        Text title = FXGL.getUIFactoryService().newText("S.N.A.K.E");
+        title.setTranslateY((double)Constants.HEIGHT/4);
+        title.setScaleX(6);
+        title.setScaleY(6);
+        centerAt(title, 0.5);
+
+        var newGameButton = createButton("NEW GAME", 3, (double)Constants.HEIGHT/2, 0.5, () -> {
+            AssetCache.playSound("found.wav");
+            fireNewGame();
+        });
+        var exitButton = createButton("EXIT", 2, (double)Constants.HEIGHT/2 + 120, 0.5, () -> {
+            AssetCache.playSound("exit.wav");
+            fireExit();
+        });
+
+        getContentRoot().getChildren().addAll(background, title, newGameButton, exitButton);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.diro.dirosnake.menu;
+
+import com.almasb.fxgl.animation.Animation;
+import com.almasb.fxgl.animation.Interpolators;
+import com.almasb.fxgl.app.scene.FXGLMenu;
+import com.almasb.fxgl.app.scene.MenuType;
+import com.almasb.fxgl.dsl.FXGL;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.util.Duration;
+import org.diro.dirosnake.AssetCache;
+import org.diro.dirosnake.system.FramePacer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base des menus du jeu. Un menu au repos ne doit presque rien coûter :
+ * <ul>
+ *     <li>la mise en page (centrage horizontal des noeuds) n'est refaite que lorsqu'un noeud change de taille
+ *     (texte modifié, premier passage CSS), jamais à chaque image ;</li>
+ *     <li>seules les animations en cours sont mises à jour ;</li>
+ *     <li>immobile et sans entrée, il passe à la cadence réduite du {@link FramePacer} ;</li>
+ *     <li>les transitions (boutons) sont ignorées si une autre vient d'avoir lieu, pour qu'un double clic ne
+ *     lance pas deux parties.</li>
+ * </ul>
+ */
+public abstract class SnakeMenu extends FXGLMenu {
+
+    private static final long TRANSITION_DEBOUNCE_NANOS = 300_000_000L;
+    private static final String TRANSPARENT = "-fx-background-color: transparent;";
+
+    private final List<Node> centeredNodes = new ArrayList<>();
+    private final List<Double> centers = new ArrayList<>();
+    private final List<Animation<?>> animations = new ArrayList<>();
+    private final FramePacer pacer;
+    private boolean layoutDirty = true;
+    private long lastTransition = System.nanoTime() - TRANSITION_DEBOUNCE_NANOS;
+
+    protected SnakeMenu(MenuType type, FramePacer pacer) {
+        super(type);
+        this.pacer = pacer;
+    }
+
+    /** Garde "node" centré horizontalement sur la fraction "xFraction" de la largeur du jeu. */
+    protected void centerAt(Node node, double xFraction) {
+        centeredNodes.add(node);
+        centers.add(xFraction);
+        node.boundsInLocalProperty().addListener((observable, before, after) -> {
+            if (before.getWidth() != after.getWidth()) {
+                layoutDirty = true;
+            }
+        });
+        layoutDirty = true;
+    }
+
+    /** Ajoute une animation mise à jour par le menu, seulement pendant qu'elle joue. */
+    protected <T extends Animation<?>> T track(T animation) {
+        animations.add(animation);
+        return animation;
+    }
+
+    /** Démarre une animation suivie ; le menu repasse d'abord à pleine cadence. */
+    protected void play(Animation<?> animation) {
+        pacer.wake();
+        animation.start();
+    }
+
+    /**
+     * Bouton transparent qui clignote au survol, centré sur "xFraction". "onClick" passe par
+     * {@link #transition(Runnable)}.
+     */
+    protected Button createButton(String label, double scale, double y, double xFraction, Runnable onClick) {
+        Button button = FXGL.getUIFactoryService().newButton(label);
+        button.setStyle(TRANSPARENT);
+        button.setTranslateY(y);
+        button.setFocusTraversable(false);
+        button.setScaleX(scale);
+        button.setScaleY(scale);
+
+        Animation<?> hover = track(FXGL.animationBuilder()
+                .duration(Duration.seconds(0.95))
+                .interpolator(Interpolators.SMOOTH.EASE_IN_OUT())
+                .repeatInfinitely()
+                .autoReverse(true)
+                .animate(button.opacityProperty())
+                .from(1)
+                .to(0.5)
+                .build());
+        button.setOnMouseEntered(event -> {
+            play(hover);
+            AssetCache.playSound("codecopen.wav");
+        });
+        button.setOnMouseExited(event -> {
+            hover.stop();
+            button.setOpacity(1.0);
+        });
+        button.setOnMouseClicked(event -> transition(onClick));
+
+        centerAt(button, xFraction);
+        return button;
+    }
+
+    /** Exécute "action" sauf si une autre transition a eu lieu il y a moins de 300 ms. */
+    protected boolean transition(Runnable action) {
+        long now = System.nanoTime();
+        if (now - lastTransition < TRANSITION_DEBOUNCE_NANOS) {
+            return false;
+        }
+        lastTransition = now;
+        action.run();
+        return true;
+    }
+
+    protected static void hideNode(Node node) {
+        node.setVisible(false);
+        node.setManaged(false);
+    }
+
+    protected static void showNode(Node node) {
+        node.setVisible(true);
+        node.setManaged(true);
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        boolean animating = false;
+        for (int i = 0; i < animations.size(); i++) {
+            animating |= animations.get(i).isAnimating();
+        }
+        double seconds = pacer.menuFrame(tpf, animating);
+        for (int i = 0; i < animations.size(); i++) {
+            Animation<?> animation = animations.get(i);
+            if (animation.isAnimating()) {
+                animation.onUpdate(seconds);
+            }
+        }
+        if (layoutDirty) {
+            layout();
+        }
+    }
+
+    private void layout() {
+        layoutDirty = false;
+        for (int i = 0; i < centeredNodes.size(); i++) {
+            Node node = centeredNodes.get(i);
+            node.setTranslateX(getAppWidth() * centers.get(i) - node.getBoundsInLocal().getWidth() / 2);
+        }
+    }
+}
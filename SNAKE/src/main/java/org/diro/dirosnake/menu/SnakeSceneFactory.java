@@ -1,17 +1,39 @@
 package org.diro.dirosnake.menu;
 
 import com.almasb.fxgl.app.scene.*;
+import org.diro.dirosnake.GameState;
+import org.diro.dirosnake.scores.ScoreStore;
+import org.diro.dirosnake.system.FramePacer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class SnakeSceneFactory extends SceneFactory {
 
+    private final GameState state;
+    private final CompletableFuture<ScoreStore> scores;
+    private final Supplier<CompletableFuture<Integer>> lastRecord;
+    private final FramePacer pacer;
+
+    /**
+     * "scores" s'ouvre en tâche de fond et se complète par null si les scores ne sont pas enregistrés ;
+     * "lastRecord" donne la position, à venir, de la partie qui vient de finir dans "scores", ou -1.
+     */
+    public SnakeSceneFactory(GameState state, CompletableFuture<ScoreStore> scores,
+                             Supplier<CompletableFuture<Integer>> lastRecord, FramePacer pacer) {
+        this.state = state;
+        this.scores = scores;
+        this.lastRecord = lastRecord;
+        this.pacer = pacer;
+    }
+
     @Override
     public FXGLMenu newMainMenu() {
-        // TODO: Remplacer le FXGLDefaultMenu par MainMenu pour voir votre menu personnalisé.
-        return new FXGLDefaultMenu(MenuType.MAIN_MENU);
+        return new MainMenu(pacer);
     }
 
     @Override
     public FXGLMenu newGameMenu() {
-        return new GameOverMenu();
+        return new GameOverMenu(state, scores, lastRecord, pacer);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.diro.dirosnake.metrics;
+
+import java.util.Locale;
+
+/**
+ * Relevé des compteurs de performance sur une fenêtre de temps. L'objet est réutilisé d'un relevé à l'autre.
+ */
+public class MetricsSample {
+
+    static final String CSV_HEADER = "time_ms,fps,frame_p50_ms,frame_p95_ms,frame_p99_ms,frame_max_ms,"
+            + "ticks,tick_mean_us,tick_max_us,entities,cpu_pct,alloc_mb_s,gc_count,gc_pause_ms,snake_length,"
+            + "inputs,input_lag_mean_ms,input_lag_max_ms";
+
+    public long timeMillis;
+    public double fps;
+    public double frameP50Millis;
+    public double frameP95Millis;
+    public double frameP99Millis;
+    public double frameMaxMillis;
+    public long ticks;
+    public double tickMeanMicros;
+    public double tickMaxMicros;
+    public int entities;
+    /** Temps CPU du processus en pourcentage d'un coeur (-1 si la JVM ne le mesure pas). */
+    public double cpuPercent;
+    /** Octets alloués par le fil du jeu, en Mo par seconde (-1 si la JVM ne le mesure pas). */
+    public double allocationMegabytesPerSecond;
+    public long gcCount;
+    public long gcPauseMillis;
+    public int snakeLength;
+    /** Directions du joueur appliquées pendant la fenêtre, et délai entre l'appui et le tick qui l'applique. */
+    public long inputs;
+    public double inputLatencyMeanMillis;
+    public double inputLatencyMaxMillis;
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d,%.1f,%.1f,%d,%.1f,%.2f,%d,%d,%d,%d,%.2f,%.2f",
+                timeMillis, fps, frameP50Millis, frameP95Millis, frameP99Millis, frameMaxMillis,
+                ticks, tickMeanMicros, tickMaxMicros, entities, cpuPercent, allocationMegabytesPerSecond,
+                gcCount, gcPauseMillis, snakeLength, inputs, inputLatencyMeanMillis, inputLatencyMaxMillis);
+    }
+
+    /** Texte de l'affichage en jeu. */
+    public String toDisplayString() {
+        return String.format(Locale.ROOT,
+                "FPS %5.1f%n"
+                        + "frame p50 %5.2f  p95 %5.2f  p99 %5.2f  max %6.2f ms%n"
+                        + "tick  mean %6.1f  max %7.1f us  (%d)%n"
+                        + "entities %d   snake %d%n"
+                        + "input mean %5.1f  max %5.1f ms  (%d)%n"
+                        + "CPU %5.1f%%   alloc %6.2f MB/s   GC %d (%d ms)",
+                fps, frameP50Millis, frameP95Millis, frameP99Millis, frameMaxMillis,
+                tickMeanMicros, tickMaxMicros, ticks, entities, snakeLength,
+                inputLatencyMeanMillis, inputLatencyMaxMillis, inputs,
+                cpuPercent, allocationMegabytesPerSecond, gcCount, gcPauseMillis);
+    }
+}
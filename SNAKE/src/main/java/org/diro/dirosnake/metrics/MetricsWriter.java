@@ -0,0 +1,58 @@
+package org.diro.dirosnake.metrics;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Écrit les relevés dans un fichier CSV (une ligne par relevé), ouvert au premier relevé. Chaque ligne est
+ * vidée sur le disque aussitôt, pour ne rien perdre si le jeu est fermé brusquement.
+ */
+public class MetricsWriter implements Closeable {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private BufferedWriter writer;
+    private Path file;
+    private boolean closed = false;
+
+    public MetricsWriter(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Sans effet une fois fermé : l'arrêt de la JVM peut fermer le fichier pendant une image. */
+    public synchronized void write(MetricsSample sample) throws IOException {
+        if (closed) {
+            return;
+        }
+        if (writer == null) {
+            Files.createDirectories(directory);
+            file = directory.resolve("metrics-" + LocalDateTime.now().format(FILE_DATE) + ".csv");
+            writer = Files.newBufferedWriter(file);
+            writer.write(MetricsSample.CSV_HEADER);
+            writer.newLine();
+        }
+        writer.write(sample.toCsv());
+        writer.newLine();
+        writer.flush();
+    }
+
+    /** Fichier en cours d'écriture, ou null si aucun relevé n'a encore été écrit. */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
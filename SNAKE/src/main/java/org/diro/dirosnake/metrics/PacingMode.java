@@ -0,0 +1,7 @@
+package org.diro.dirosnake.metrics;
+
+/** Cadence de la boucle : pleine cadence, ou réduite quand rien ne bouge (voir {@link PacingStats}). */
+public enum PacingMode {
+    ACTIVE,
+    IDLE
+}
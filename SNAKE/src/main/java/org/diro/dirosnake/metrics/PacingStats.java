@@ -0,0 +1,82 @@
+package org.diro.dirosnake.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Locale;
+
+/**
+ * Images, temps réel et temps CPU du processus passés dans chaque {@link PacingMode}. Une image ne fait
+ * qu'incrémenter un compteur ; le temps CPU n'est lu qu'aux changements de mode et aux relevés.
+ */
+public class PacingStats {
+
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+    private final long[] frames = new long[PacingMode.values().length];
+    private final long[] wallNanos = new long[PacingMode.values().length];
+    private final long[] cpuNanos = new long[PacingMode.values().length];
+    private PacingMode mode = PacingMode.ACTIVE;
+    private long since = System.nanoTime();
+    private long cpuSince = processCpuNanos();
+
+    public PacingMode getMode() {
+        return mode;
+    }
+
+    public void frame() {
+        frames[mode.ordinal()]++;
+    }
+
+    /** Change de mode ; le temps écoulé jusqu'ici revient au mode précédent. */
+    public void switchTo(PacingMode next) {
+        settle();
+        mode = next;
+    }
+
+    public double fps(PacingMode of) {
+        settle();
+        long wall = wallNanos[of.ordinal()];
+        return wall == 0 ? 0 : frames[of.ordinal()] * 1e9 / wall;
+    }
+
+    /** Temps CPU du processus en pourcentage d'un coeur (-1 si la JVM ne le mesure pas). */
+    public double cpuPercent(PacingMode of) {
+        settle();
+        long wall = wallNanos[of.ordinal()];
+        return cpuSince < 0 ? -1 : wall == 0 ? 0 : 100.0 * cpuNanos[of.ordinal()] / wall;
+    }
+
+    public double seconds(PacingMode of) {
+        settle();
+        return wallNanos[of.ordinal()] / 1e9;
+    }
+
+    /** Une ligne par mode : "active 60.0 fps 12.3% CPU over 40.0 s". */
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        for (PacingMode of : PacingMode.values()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(String.format(Locale.ROOT, "%s %.1f fps %.1f%% CPU over %.1f s",
+                    of.name().toLowerCase(Locale.ROOT), fps(of), cpuPercent(of), seconds(of)));
+        }
+        return text.toString();
+    }
+
+    private void settle() {
+        long now = System.nanoTime();
+        long cpu = processCpuNanos();
+        wallNanos[mode.ordinal()] += now - since;
+        if (cpu >= 0 && cpuSince >= 0) {
+            cpuNanos[mode.ordinal()] += cpu - cpuSince;
+        }
+        since = now;
+        cpuSince = cpu;
+    }
+
+    /** Temps CPU de tout le processus (rendu JavaFX et audio compris), -1 si la JVM ne le mesure pas. */
+    static long processCpuNanos() {
+        return OS instanceof com.sun.management.OperatingSystemMXBean sunBean ? sunBean.getProcessCpuTime() : -1;
+    }
+}
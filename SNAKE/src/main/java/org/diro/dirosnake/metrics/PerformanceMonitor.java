@@ -0,0 +1,176 @@
+package org.diro.dirosnake.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compteurs de performance du jeu : durée des images (sur une fenêtre glissante, pour les centiles), coût des
+ * ticks de simulation, délai des directions du joueur, temps CPU du processus, allocation du fil du jeu et
+ * pauses du ramasse-miettes. L'enregistrement d'une image ou d'un tick ne fait qu'écrire dans des tableaux
+ * préalloués ; le tri et les lectures JMX n'ont lieu qu'au relevé.
+ */
+public final class PerformanceMonitor {
+
+    private final long[] frameNanos;
+    private final long[] sorted;
+    private int frameIndex = 0;
+    private int frameCount = 0;
+    private long lastFrame = -1;
+
+    private long ticks = 0;
+    private long tickTotalNanos = 0;
+    private long tickMaxNanos = 0;
+
+    private long inputs = 0;
+    private long inputTotalNanos = 0;
+    private long inputMaxNanos = 0;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean threads;
+    private long lastSample;
+    private long lastAllocated;
+    private long lastCpu;
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    public PerformanceMonitor(int frameWindow) {
+        this.frameNanos = new long[frameWindow];
+        this.sorted = new long[frameWindow];
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+        reset();
+    }
+
+    /** Recommence les mesures (les deltas d'allocation et de GC repartent de maintenant). */
+    public void reset() {
+        frameIndex = 0;
+        frameCount = 0;
+        lastFrame = -1;
+        clearTicks();
+        clearInputs();
+        lastSample = System.nanoTime();
+        lastAllocated = allocatedBytes();
+        lastCpu = PacingStats.processCpuNanos();
+        lastGcCount = gcCount();
+        lastGcMillis = gcMillis();
+    }
+
+    /** À appeler une fois par image : note le temps écoulé depuis l'image précédente. */
+    public void frame(long now) {
+        if (lastFrame >= 0) {
+            frameNanos[frameIndex] = now - lastFrame;
+            frameIndex = (frameIndex + 1) % frameNanos.length;
+            frameCount = Math.min(frameCount + 1, frameNanos.length);
+        }
+        lastFrame = now;
+    }
+
+    /** Note la durée d'un tick de simulation. */
+    public void tick(long nanos) {
+        ticks++;
+        tickTotalNanos += nanos;
+        tickMaxNanos = Math.max(tickMaxNanos, nanos);
+    }
+
+    /** Note le délai entre l'appui d'une direction et le tick qui l'a appliquée. */
+    public void input(long latencyNanos) {
+        inputs++;
+        inputTotalNanos += latencyNanos;
+        inputMaxNanos = Math.max(inputMaxNanos, latencyNanos);
+    }
+
+    /**
+     * Remplit "sample" avec les compteurs depuis le relevé précédent. Les centiles portent sur les
+     * dernières images de la fenêtre glissante.
+     */
+    public void sample(MetricsSample sample, int entities, int snakeLength) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastSample) / 1e9);
+
+        sample.timeMillis = System.currentTimeMillis();
+        if (frameCount > 0) {
+            System.arraycopy(frameNanos, 0, sorted, 0, frameCount);
+            Arrays.sort(sorted, 0, frameCount);
+            long total = 0;
+            for (int i = 0; i < frameCount; i++) {
+                total += sorted[i];
+            }
+            sample.fps = 1e9 * frameCount / total;
+            sample.frameP50Millis = percentile(0.50);
+            sample.frameP95Millis = percentile(0.95);
+            sample.frameP99Millis = percentile(0.99);
+            sample.frameMaxMillis = sorted[frameCount - 1] / 1e6;
+        }
+
+        sample.ticks = ticks;
+        sample.tickMeanMicros = ticks == 0 ? 0 : tickTotalNanos / 1e3 / ticks;
+        sample.tickMaxMicros = tickMaxNanos / 1e3;
+        clearTicks();
+
+        sample.inputs = inputs;
+        sample.inputLatencyMeanMillis = inputs == 0 ? 0 : inputTotalNanos / 1e6 / inputs;
+        sample.inputLatencyMaxMillis = inputMaxNanos / 1e6;
+        clearInputs();
+
+        long allocated = allocatedBytes();
+        sample.allocationMegabytesPerSecond = allocated < 0 ? -1 : (allocated - lastAllocated) / 1e6 / seconds;
+        lastAllocated = allocated;
+
+        long cpu = PacingStats.processCpuNanos();
+        sample.cpuPercent = cpu < 0 || lastCpu < 0 ? -1 : (cpu - lastCpu) / 1e7 / seconds;
+        lastCpu = cpu;
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        sample.gcCount = gcCount - lastGcCount;
+        sample.gcPauseMillis = gcMillis - lastGcMillis;
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+
+        sample.entities = entities;
+        sample.snakeLength = snakeLength;
+        lastSample = now;
+    }
+
+    private double percentile(double p) {
+        int index = (int) Math.ceil(p * frameCount) - 1;
+        return sorted[Math.max(0, Math.min(frameCount - 1, index))] / 1e6;
+    }
+
+    private void clearTicks() {
+        ticks = 0;
+        tickTotalNanos = 0;
+        tickMaxNanos = 0;
+    }
+
+    private void clearInputs() {
+        inputs = 0;
+        inputTotalNanos = 0;
+        inputMaxNanos = 0;
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
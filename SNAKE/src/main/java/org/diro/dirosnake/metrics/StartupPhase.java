@@ -0,0 +1,9 @@
+package org.diro.dirosnake.metrics;
+
+/** Étapes du démarrage mesurées par {@link StartupTimer}, dans l'ordre où elles arrivent. */
+public enum StartupPhase {
+    MAIN,
+    SETTINGS,
+    PRE_INIT,
+    FIRST_FRAME
+}
@@ -0,0 +1,97 @@
+package org.diro.dirosnake.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Temps de démarrage à froid : millisecondes écoulées entre le lancement du processus et chaque
+ * {@link StartupPhase}, jusqu'à la première image affichée. Chaque lancement ajoute une ligne à un CSV, avec
+ * l'archive CDS utilisée s'il y en a une (voir le profil cds du pom), pour suivre les régressions.
+ */
+public class StartupTimer {
+
+    public static final String CSV_HEADER = "time,java,cds_archive,main_ms,settings_ms,pre_init_ms,first_frame_ms";
+    private static final String ARCHIVE_OPTION = "-XX:SharedArchiveFile=";
+
+    private final Instant processStart;
+    private final long[] phases = new long[StartupPhase.values().length];
+
+    public StartupTimer() {
+        // Lancement du processus si le système le donne, sinon démarrage de la JVM (un peu plus tard).
+        this.processStart = ProcessHandle.current().info().startInstant()
+                .orElseGet(() -> Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()));
+        Arrays.fill(phases, -1);
+    }
+
+    /** Note la fin de "phase" ; seule la première marque compte (une nouvelle partie ne redémarre rien). */
+    public void mark(StartupPhase phase) {
+        if (phases[phase.ordinal()] < 0) {
+            phases[phase.ordinal()] = Math.max(0, Duration.between(processStart, Instant.now()).toMillis());
+        }
+    }
+
+    /** Millisecondes entre le lancement du processus et la fin de "phase", ou -1 si elle n'est pas encore passée. */
+    public long getMillis(StartupPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /** Archive CDS passée à la JVM, ou une chaîne vide. */
+    public static String getSharedArchive() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith(ARCHIVE_OPTION)) {
+                return argument.substring(ARCHIVE_OPTION.length());
+            }
+        }
+        return "";
+    }
+
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (StartupPhase phase : StartupPhase.values()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(phase.name().toLowerCase(Locale.ROOT).replace('_', ' '))
+                    .append(' ').append(getMillis(phase)).append(" ms");
+        }
+        String archive = getSharedArchive();
+        return archive.isEmpty() ? builder.toString() : builder + " (CDS " + archive + ")";
+    }
+
+    public String toCsv() {
+        StringBuilder builder = new StringBuilder()
+                .append(System.currentTimeMillis()).append(',')
+                .append(Runtime.version().feature()).append(',')
+                .append(getSharedArchive());
+        for (StartupPhase phase : StartupPhase.values()) {
+            builder.append(',').append(getMillis(phase));
+        }
+        return builder.toString();
+    }
+
+    /** Ajoute ce lancement à "file", créé avec son en-tête s'il n'existe pas. */
+    public void append(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        boolean created = !Files.exists(file);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            if (created) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+            }
+            writer.write(toCsv());
+            writer.newLine();
+        }
+    }
+}
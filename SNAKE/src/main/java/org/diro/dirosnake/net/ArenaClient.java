@@ -0,0 +1,153 @@
+package org.diro.dirosnake.net;
+
+import org.diro.dirosnake.Directions;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Client d'une {@link ArenaServer} : envoie les directions de son S.N.A.K.E. et applique les trames reçues à un
+ * {@link ArenaMirror}. Sans fenêtre ni fil propre, {@link #receive()} est appelé en boucle par son propriétaire.
+ */
+public class ArenaClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final NetProtocol.Output message = new NetProtocol.Output();
+    private final int slot;
+    private final ArenaMirror mirror;
+
+    private long bytesReceived = 0;
+    private long frames = 0;
+    private long checks = 0;
+    private long desyncs = 0;
+
+    private ArenaClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+        this.out = socket.getOutputStream();
+
+        NetProtocol.Input welcome = new NetProtocol.Input(next());
+        int type = welcome.read();
+        if (type == NetProtocol.FULL) {
+            throw new IOException("Arena server is full");
+        }
+        if (type != NetProtocol.WELCOME) {
+            throw new IOException("Expected a welcome message, got type " + type);
+        }
+        int version = welcome.readVarInt();
+        if (version != NetProtocol.VERSION) {
+            throw new IOException("Unsupported protocol version " + version);
+        }
+        this.slot = welcome.readVarInt();
+        int cols = welcome.readVarInt();
+        int rows = welcome.readVarInt();
+        int snakes = welcome.readVarInt();
+        int dataCount = welcome.readVarInt();
+        this.mirror = new ArenaMirror(cols, rows, snakes, dataCount);
+
+        NetProtocol.Input snapshot = new NetProtocol.Input(next());
+        if (snapshot.read() != NetProtocol.SNAPSHOT) {
+            throw new IOException("Expected a snapshot after the welcome message");
+        }
+        mirror.applySnapshot(snapshot);
+    }
+
+    /** Se connecte et attend l'état complet de l'arène. */
+    public static ArenaClient connect(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        try {
+            socket.setTcpNoDelay(true);
+            return new ArenaClient(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /** Lit et applique la prochaine trame. Retourne faux quand le serveur a fermé la connexion. */
+    public boolean receive() throws IOException {
+        byte[] bytes = NetProtocol.readFrame(in);
+        if (bytes == null) {
+            return false;
+        }
+        countFrame(bytes);
+
+        NetProtocol.Input frame = new NetProtocol.Input(bytes);
+        int type = frame.read();
+        if (type == NetProtocol.DELTA) {
+            mirror.applyDelta(frame);
+        } else if (type == NetProtocol.SNAPSHOT) {
+            mirror.applySnapshot(frame);
+        } else if (type == NetProtocol.CHECK) {
+            long tick = frame.readVarLong();
+            long hash = frame.readLong();
+            checks++;
+            if (tick != mirror.getTick() || hash != mirror.stateHash()) {
+                desyncs++;
+            }
+        } else {
+            throw new IOException("Unknown message type " + type);
+        }
+        return true;
+    }
+
+    /** Demande une direction pour le prochain tick du serveur. */
+    public void send(Directions direction) throws IOException {
+        message.clear();
+        message.write(NetProtocol.INPUT);
+        message.writeVarLong(mirror.getTick());
+        message.write(direction.ordinal());
+        out.write(message.toFrame());
+        out.flush();
+    }
+
+    private byte[] next() throws IOException {
+        byte[] bytes = NetProtocol.readFrame(in);
+        if (bytes == null) {
+            throw new IOException("Connection closed by the arena server");
+        }
+        countFrame(bytes);
+        return bytes;
+    }
+
+    private void countFrame(byte[] bytes) {
+        frames++;
+        // La longueur de la trame tient en un varint de quelques octets.
+        bytesReceived += bytes.length + (32 - Integer.numberOfLeadingZeros(bytes.length) + 6) / 7;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public ArenaMirror getMirror() {
+        return mirror;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public long getCheckCount() {
+        return checks;
+    }
+
+    /** Nombre de trames CHECK dont l'empreinte ne correspond pas au miroir. */
+    public long getDesyncCount() {
+        return desyncs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
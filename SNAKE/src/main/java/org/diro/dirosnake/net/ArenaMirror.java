@@ -0,0 +1,165 @@
+package org.diro.dirosnake.net;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Copie locale d'une arène, tenue à jour par les trames du serveur. Les corps sont de vrais {@link SnakeBody}
+ * sur une {@link OccupancyGrid} : une avancée reçue coûte O(1), comme sur le serveur, et l'empreinte se calcule
+ * exactement comme {@link org.diro.dirosnake.core.ArenaGame#stateHash()}.
+ */
+public class ArenaMirror {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+    private static final int INITIAL_BODY_CAPACITY = 64;
+
+    private final OccupancyGrid grid;
+    private final SnakeBody[] bodies;
+    private final int[] dataCells;
+    private long tick = 0;
+
+    public ArenaMirror(int cols, int rows, int snakes, int dataCount) {
+        this.grid = new OccupancyGrid(cols, rows);
+        this.bodies = new SnakeBody[snakes];
+        this.dataCells = new int[dataCount];
+        Arrays.fill(dataCells, -1);
+        for (int i = 0; i < snakes; i++) {
+            bodies[i] = new SnakeBody(grid, INITIAL_BODY_CAPACITY);
+        }
+    }
+
+    void applySnapshot(NetProtocol.Input in) throws IOException {
+        for (SnakeBody body : bodies) {
+            body.release();
+        }
+        tick = in.readVarLong();
+        for (int k = 0; k < dataCells.length; k++) {
+            dataCells[k] = readCell(in.readVarInt() - 1);
+        }
+        for (SnakeBody body : bodies) {
+            int size = in.readVarInt();
+            if (size > grid.getCols() * grid.getRows()) {
+                throw new IOException("Body larger than the board: " + size);
+            }
+            for (int i = 0; i < size; i++) {
+                int cell = readBodyCell(in.readVarInt());
+                if (i == 0) {
+                    body.place(cell % grid.getCols(), cell / grid.getCols());
+                } else {
+                    body.extend(cell % grid.getCols(), cell / grid.getCols());
+                }
+            }
+        }
+    }
+
+    void applyDelta(NetProtocol.Input in) throws IOException {
+        tick = in.readVarLong();
+
+        int events = in.readVarInt();
+        int snake = 0;
+        for (int e = 0; e < events; e++) {
+            int header = in.readVarInt();
+            snake += header >>> 4;
+            if (snake >= bodies.length) {
+                throw new IOException("Unknown snake " + snake);
+            }
+            SnakeBody body = bodies[snake];
+            int code = header & 0xF;
+
+            if (code < NetProtocol.SPAWN) {
+                if (body.isEmpty()) {
+                    throw new IOException("Move of a dead snake " + snake);
+                }
+                Directions direction = DIRECTIONS[code & 3];
+                if (code < NetProtocol.GROW) {
+                    body.retract();
+                }
+                int col = body.getHeadCol() + direction.dx();
+                int row = body.getHeadRow() + direction.dy();
+                if (!grid.contains(col, row)) {
+                    throw new IOException("Move out of the board for snake " + snake);
+                }
+                body.extend(col, row);
+            } else if (code == NetProtocol.SPAWN) {
+                int cell = readBodyCell(in.readVarInt());
+                body.release();
+                body.place(cell % grid.getCols(), cell / grid.getCols());
+            } else if (code == NetProtocol.DEATH) {
+                body.release();
+            } else {
+                throw new IOException("Unknown event code " + code);
+            }
+        }
+
+        int changes = in.readVarInt();
+        for (int c = 0; c < changes; c++) {
+            int data = in.readVarInt();
+            if (data >= dataCells.length) {
+                throw new IOException("Unknown data " + data);
+            }
+            dataCells[data] = readCell(in.readVarInt() - 1);
+        }
+    }
+
+    private int readCell(int cell) throws IOException {
+        if (cell < -1 || cell >= grid.getCols() * grid.getRows()) {
+            throw new IOException("Cell out of the board: " + cell);
+        }
+        return cell;
+    }
+
+    private int readBodyCell(int cell) throws IOException {
+        if (readCell(cell) < 0) {
+            throw new IOException("Missing body cell");
+        }
+        return cell;
+    }
+
+    /** Même calcul que {@link org.diro.dirosnake.core.ArenaGame#stateHash()}. */
+    public long stateHash() {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + tick;
+        for (int cell : dataCells) {
+            hash = 31 * hash + cell;
+        }
+        for (SnakeBody body : bodies) {
+            hash = 31 * hash + body.size();
+            for (int i = 0; i < body.size(); i++) {
+                hash = 31 * hash + (long) body.getRow(i) * grid.getCols() + body.getCol(i);
+            }
+        }
+        return hash;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getSnakeCount() {
+        return bodies.length;
+    }
+
+    public SnakeBody getBody(int snake) {
+        return bodies[snake];
+    }
+
+    public boolean isAlive(int snake) {
+        return !bodies[snake].isEmpty();
+    }
+
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    public int getDataCount() {
+        return dataCells.length;
+    }
+
+    public int getDataCell(int data) {
+        return dataCells[data];
+    }
+}
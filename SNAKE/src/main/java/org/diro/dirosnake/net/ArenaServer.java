@@ -0,0 +1,511 @@
+package org.diro.dirosnake.net;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.ai.ArenaGreedyPolicy;
+import org.diro.dirosnake.core.ArenaGame;
+import org.diro.dirosnake.core.SnakeBody;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serveur d'arène : la simulation fait autorité et tourne sur un seul fil, à cadence fixe. Chaque client
+ * pilote un S.N.A.K.E. (son "slot") en n'envoyant que des directions ; les slots libres sont joués par
+ * {@link ArenaGreedyPolicy}. Après chaque tick, le serveur code une seule trame DELTA (voir {@link NetProtocol})
+ * et la met dans la file d'envoi de chaque client : le coût d'un tick est O(S.N.A.K.E. + données + clients),
+ * quelle que soit la longueur des corps. Un client arrivé en cours de partie reçoit d'abord un SNAPSHOT complet.
+ *
+ * Les entrées ne sont pas attendues (pas de lockstep strict) : la dernière direction reçue avant un tick
+ * s'applique à ce tick. Un client trop lent pour vider sa file d'envoi est déconnecté.
+ *
+ * java -cp target/classes org.diro.dirosnake.net.ArenaServer --port 7777 --slots 64 --cols 128 --rows 128
+ */
+public class ArenaServer implements AutoCloseable {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+    // Trames en attente par client avant de le considérer comme décroché (environ 8 s à 30 ticks/s).
+    private static final int OUTBOX_CAPACITY = 256;
+    private static final int TICK_SAMPLES = 1 << 14;
+    private static final long NO_INPUT = -1;
+
+    private final ArenaGame arena;
+    private final long periodNanos;
+    private final ArenaGreedyPolicy bots = new ArenaGreedyPolicy();
+    private final Connection[] connections;
+    // Par slot : (dernier tick vu par le client << 2) | direction, ou NO_INPUT. Écrit par les fils de lecture.
+    private final AtomicLongArray pendingInputs;
+    private final ConcurrentLinkedQueue<Socket> joins = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Connection> leaves = new ConcurrentLinkedQueue<>();
+
+    // État d'avant le tick, pour coder le DELTA.
+    private final boolean[] wasAlive;
+    private final int[] sizes;
+    private final int[] dataCells;
+    private final NetProtocol.Output frame = new NetProtocol.Output();
+    private final NetProtocol.Output events = new NetProtocol.Output();
+
+    // Mesures : écrites par le fil de simulation, lues à la fin par le harnais.
+    private final long[] tickSamples = new long[TICK_SAMPLES];
+    private volatile long tickCount = 0;
+    private volatile long tickNanos = 0;
+    private volatile long maxTickNanos = 0;
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile long inputs = 0;
+    private volatile long inputLagTicks = 0;
+    private volatile int connectedCount = 0;
+
+    private ServerSocket serverSocket;
+    private Thread tickThread;
+    private volatile boolean running = false;
+
+    /** "arena" doit déjà avoir été préparée par {@link ArenaGame#reset()} ; le serveur remplace ses politiques. */
+    public ArenaServer(ArenaGame arena, double ticksPerSecond) {
+        this.arena = arena;
+        this.periodNanos = (long) (1e9 / ticksPerSecond);
+        int snakes = arena.getSnakeCount();
+        this.connections = new Connection[snakes];
+        this.pendingInputs = new AtomicLongArray(snakes);
+        this.wasAlive = new boolean[snakes];
+        this.sizes = new int[snakes];
+        this.dataCells = new int[arena.getDataCount()];
+
+        for (int i = 0; i < snakes; i++) {
+            pendingInputs.set(i, NO_INPUT);
+            arena.setPolicy(i, this::decide);
+        }
+    }
+
+    /** Ouvre le port sur l'interface locale (0 : port libre choisi par le système) et lance la simulation. */
+    public void start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 256, InetAddress.getLoopbackAddress());
+        running = true;
+
+        Thread.ofVirtual().name("arena-accept").start(this::acceptLoop);
+        tickThread = Thread.ofPlatform().name("arena-tick").daemon().start(this::tickLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException ignored) {
+            // Le port est libéré de toute façon.
+        }
+        if (tickThread != null) {
+            try {
+                tickThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Connection connection : connections) {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                joins.add(socket);
+            } catch (IOException e) {
+                // Socket fermé par close().
+                return;
+            }
+        }
+    }
+
+    private void tickLoop() {
+        long next = System.nanoTime();
+        while (running) {
+            long start = System.nanoTime();
+            handleLeaves();
+            handleJoins();
+            tick();
+            long elapsed = System.nanoTime() - start;
+
+            tickSamples[(int) (tickCount % TICK_SAMPLES)] = elapsed;
+            tickNanos += elapsed;
+            maxTickNanos = Math.max(maxTickNanos, elapsed);
+            tickCount++;
+
+            next += periodNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (-wait > periodNanos * 4) {
+                // Trop de retard : on ne rattrape pas, la cadence repart d'ici.
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    private void tick() {
+        int snakes = arena.getSnakeCount();
+        for (int i = 0; i < snakes; i++) {
+            wasAlive[i] = arena.isAlive(i);
+            sizes[i] = arena.getBody(i).size();
+        }
+        for (int k = 0; k < dataCells.length; k++) {
+            dataCells[k] = arena.getDataCell(k);
+        }
+
+        arena.tick();
+
+        events.clear();
+        int count = 0;
+        int previous = 0;
+        for (int i = 0; i < snakes; i++) {
+            int code;
+            int cell = -1;
+            SnakeBody body = arena.getBody(i);
+            if (wasAlive[i] && !arena.isAlive(i)) {
+                code = NetProtocol.DEATH;
+            } else if (!wasAlive[i] && arena.isAlive(i)) {
+                code = NetProtocol.SPAWN;
+                cell = body.getHeadRow() * arena.getCols() + body.getHeadCol();
+            } else if (arena.hasMoved(i)) {
+                int direction = arena.getDirection(i).ordinal();
+                code = body.size() > sizes[i] ? NetProtocol.GROW + direction : NetProtocol.MOVE + direction;
+            } else {
+                continue;
+            }
+
+            events.writeVarLong((long) (i - previous) << 4 | code);
+            if (cell >= 0) {
+                events.writeVarLong(cell);
+            }
+            previous = i;
+            count++;
+        }
+
+        frame.clear();
+        frame.write(NetProtocol.DELTA);
+        frame.writeVarLong(arena.getTicks());
+        frame.writeVarLong(count);
+        frame.write(events);
+
+        int changes = 0;
+        for (int k = 0; k < dataCells.length; k++) {
+            if (dataCells[k] != arena.getDataCell(k)) {
+                changes++;
+            }
+        }
+        frame.writeVarLong(changes);
+        for (int k = 0; k < dataCells.length; k++) {
+            if (dataCells[k] != arena.getDataCell(k)) {
+                frame.writeVarLong(k);
+                frame.writeVarLong(arena.getDataCell(k) + 1);
+            }
+        }
+        broadcast(frame.toFrame());
+
+        if (arena.getTicks() % NetProtocol.CHECK_INTERVAL == 0) {
+            frame.clear();
+            frame.write(NetProtocol.CHECK);
+            frame.writeVarLong(arena.getTicks());
+            frame.writeLong(arena.stateHash());
+            broadcast(frame.toFrame());
+        }
+    }
+
+    private void broadcast(byte[] bytes) {
+        for (Connection connection : connections) {
+            if (connection != null) {
+                connection.send(bytes);
+            }
+        }
+    }
+
+    /** Politique de chaque slot : la dernière direction reçue du client, ou le robot si le slot est libre. */
+    private Directions decide(ArenaGame arena, int snake) {
+        if (connections[snake] == null) {
+            return bots.decide(arena, snake);
+        }
+
+        Directions current = arena.getDirection(snake);
+        long input = pendingInputs.getAndSet(snake, NO_INPUT);
+        if (input == NO_INPUT) {
+            return current;
+        }
+        inputs++;
+        inputLagTicks += Math.max(0, arena.getTicks() - (input >>> 2));
+
+        Directions direction = DIRECTIONS[(int) (input & 3)];
+        if (direction == current.opposite() && arena.getBody(snake).size() > 1) {
+            return current;
+        }
+        return direction;
+    }
+
+    private void handleJoins() {
+        Socket socket;
+        while ((socket = joins.poll()) != null) {
+            int slot = freeSlot();
+            if (slot < 0) {
+                rejectFull(socket);
+                continue;
+            }
+
+            Connection connection = new Connection(socket, slot);
+            connections[slot] = connection;
+            pendingInputs.set(slot, NO_INPUT);
+            connectedCount++;
+            connection.send(welcome(slot));
+            connection.send(snapshot());
+            connection.start();
+        }
+    }
+
+    private void rejectFull(Socket socket) {
+        try {
+            OutputStream out = socket.getOutputStream();
+            frame.clear();
+            frame.write(NetProtocol.FULL);
+            out.write(frame.toFrame());
+            out.flush();
+        } catch (IOException ignored) {
+            // Le client est parti avant la réponse.
+        }
+        closeQuietly(socket);
+    }
+
+    private void handleLeaves() {
+        Connection connection;
+        while ((connection = leaves.poll()) != null) {
+            leave(connection);
+        }
+    }
+
+    private void leave(Connection connection) {
+        if (connections[connection.slot] == connection) {
+            connections[connection.slot] = null;
+            connectedCount--;
+        }
+        connection.close();
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < connections.length; i++) {
+            if (connections[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] welcome(int slot) {
+        frame.clear();
+        frame.write(NetProtocol.WELCOME);
+        frame.writeVarLong(NetProtocol.VERSION);
+        frame.writeVarLong(slot);
+        frame.writeVarLong(arena.getCols());
+        frame.writeVarLong(arena.getRows());
+        frame.writeVarLong(arena.getSnakeCount());
+        frame.writeVarLong(arena.getDataCount());
+        return frame.toFrame();
+    }
+
+    /** État complet au tick courant : O(longueur totale des corps), seulement à l'arrivée d'un client. */
+    private byte[] snapshot() {
+        frame.clear();
+        frame.write(NetProtocol.SNAPSHOT);
+        frame.writeVarLong(arena.getTicks());
+        for (int k = 0; k < arena.getDataCount(); k++) {
+            frame.writeVarLong(arena.getDataCell(k) + 1);
+        }
+        for (int i = 0; i < arena.getSnakeCount(); i++) {
+            SnakeBody body = arena.getBody(i);
+            frame.writeVarLong(body.size());
+            for (int s = body.size() - 1; s >= 0; s--) {
+                frame.writeVarLong((long) body.getRow(s) * arena.getCols() + body.getCol(s));
+            }
+        }
+        return frame.toFrame();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Rien d'autre à faire.
+        }
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public double getMeanTickMicros() {
+        long count = tickCount;
+        return count == 0 ? 0 : tickNanos / 1e3 / count;
+    }
+
+    public double getMaxTickMicros() {
+        return maxTickNanos / 1e3;
+    }
+
+    /** Centile "p" (entre 0 et 1) des durées de tick, sur les derniers ticks gardés. */
+    public double getTickPercentileMicros(double p) {
+        int count = (int) Math.min(tickCount, TICK_SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(tickSamples, count);
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) (count * p))] / 1e3;
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public int getConnectedCount() {
+        return connectedCount;
+    }
+
+    public long getInputCount() {
+        return inputs;
+    }
+
+    /** Écart moyen, en ticks, entre le tick vu par le client quand il a choisi et le tick où l'entrée s'applique. */
+    public double getMeanInputLagTicks() {
+        long count = inputs;
+        return count == 0 ? 0 : (double) inputLagTicks / count;
+    }
+
+    /** Un client : un fil virtuel lit ses entrées, un autre vide sa file d'envoi. */
+    private final class Connection {
+        private final Socket socket;
+        private final int slot;
+        private final ArrayBlockingQueue<byte[]> outbox = new ArrayBlockingQueue<>(OUTBOX_CAPACITY);
+        private volatile boolean closed = false;
+        private Thread reader;
+        private Thread writer;
+
+        Connection(Socket socket, int slot) {
+            this.socket = socket;
+            this.slot = slot;
+        }
+
+        void start() {
+            reader = Thread.ofVirtual().name("arena-read-" + slot).start(this::readLoop);
+            writer = Thread.ofVirtual().name("arena-write-" + slot).start(this::writeLoop);
+        }
+
+        void send(byte[] bytes) {
+            if (closed) {
+                return;
+            }
+            if (outbox.offer(bytes)) {
+                bytesSent.addAndGet(bytes.length);
+            } else {
+                disconnect();
+            }
+        }
+
+        private void readLoop() {
+            try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                byte[] bytes;
+                while ((bytes = NetProtocol.readFrame(in)) != null) {
+                    NetProtocol.Input message = new NetProtocol.Input(bytes);
+                    if (message.read() == NetProtocol.INPUT) {
+                        long seenTick = message.readVarLong();
+                        int direction = message.read();
+                        if (direction < DIRECTIONS.length) {
+                            pendingInputs.set(slot, seenTick << 2 | direction);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Connexion perdue ou message invalide : le client est retiré au prochain tick.
+            }
+            disconnect();
+        }
+
+        private void writeLoop() {
+            try (OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16)) {
+                while (!closed) {
+                    byte[] bytes = outbox.take();
+                    out.write(bytes);
+                    if (outbox.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // Socket fermé ou connexion perdue.
+            }
+            disconnect();
+        }
+
+        private void disconnect() {
+            if (!closed) {
+                closed = true;
+                leaves.add(this);
+            }
+        }
+
+        void close() {
+            closed = true;
+            closeQuietly(socket);
+            if (writer != null) {
+                writer.interrupt();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = NetProtocol.DEFAULT_PORT;
+        int slots = 64;
+        int cols = 128;
+        int rows = 128;
+        double rate = 7.0;
+
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--slots" -> slots = Integer.parseInt(args[++i]);
+                case "--cols" -> cols = Integer.parseInt(args[++i]);
+                case "--rows" -> rows = Integer.parseInt(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ArenaGame arena = new ArenaGame(cols, rows, slots, Math.max(1, slots / 2), System.nanoTime());
+        arena.reset();
+        ArenaServer server = new ArenaServer(arena, rate);
+        server.start(port);
+        System.out.printf("Arena server on port %d: %d slots, %dx%d, %.1f ticks/s%n",
+                server.getPort(), slots, cols, rows, rate);
+
+        while (true) {
+            Thread.sleep(5_000);
+            System.out.printf("tick %d: %d clients, mean %.1f us, p99 %.1f us, %d bytes sent%n",
+                    server.getTickCount(), server.getConnectedCount(), server.getMeanTickMicros(),
+                    server.getTickPercentileMicros(0.99), server.getBytesSent());
+        }
+    }
+}
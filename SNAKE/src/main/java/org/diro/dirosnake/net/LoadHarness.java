@@ -0,0 +1,131 @@
+package org.diro.dirosnake.net;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.ArenaGame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Banc de charge en boucle locale : un serveur et des centaines de clients sans fenêtre dans le même processus.
+ * Chaque client tourne sur un fil virtuel, applique toutes les trames et change de direction au hasard de temps
+ * en temps. Rapporte le temps de tick du serveur, la bande passante par client et les désynchronisations.
+ *
+ * java -cp target/classes org.diro.dirosnake.net.LoadHarness --clients 200 --seconds 10 --cols 256 --rows 256
+ */
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        int clients = 200;
+        int seconds = 10;
+        int cols = 256;
+        int rows = 256;
+        double rate = 30.0;
+        int turnEvery = 5;
+
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--cols" -> cols = Integer.parseInt(args[++i]);
+                case "--rows" -> rows = Integer.parseInt(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--turn-every" -> turnEvery = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ArenaGame arena = new ArenaGame(cols, rows, clients, Math.max(1, clients / 2), 7L);
+        arena.reset();
+
+        List<ArenaClient> connected = new ArrayList<>();
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        long start;
+        long end;
+
+        try (ArenaServer server = new ArenaServer(arena, rate)) {
+            server.start(0);
+
+            CountDownLatch ready = new CountDownLatch(clients);
+            for (int c = 0; c < clients; c++) {
+                int seed = c;
+                int period = turnEvery;
+                int port = server.getPort();
+                threads.add(Thread.ofVirtual().name("load-client-" + c).start(() -> {
+                    ArenaClient client;
+                    try {
+                        client = ArenaClient.connect("localhost", port);
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                        ready.countDown();
+                        return;
+                    }
+                    synchronized (connected) {
+                        connected.add(client);
+                    }
+                    ready.countDown();
+                    play(client, new Random(seed), period);
+                }));
+            }
+            ready.await();
+
+            long ticksBefore = server.getTickCount();
+            long bytesBefore = server.getBytesSent();
+            start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            end = System.nanoTime();
+            long ticks = server.getTickCount() - ticksBefore;
+            long bytes = server.getBytesSent() - bytesBefore;
+            double elapsed = (end - start) / 1e9;
+
+            System.out.printf("%d clients (%d failed to connect), board %dx%d, %.0f ticks/s target%n",
+                    connected.size(), failures.get(), cols, rows, rate);
+            System.out.printf("server: %d ticks in %.1f s (%.1f ticks/s), tick mean %.1f us, p99 %.1f us, max %.1f us%n",
+                    ticks, elapsed, ticks / elapsed, server.getMeanTickMicros(),
+                    server.getTickPercentileMicros(0.99), server.getMaxTickMicros());
+            System.out.printf("bandwidth: %.0f B/s per client, %.1f B per client per tick, %d clients still connected%n",
+                    bytes / elapsed / Math.max(1, server.getConnectedCount()),
+                    (double) bytes / Math.max(1, ticks) / Math.max(1, server.getConnectedCount()),
+                    server.getConnectedCount());
+            System.out.printf("inputs: %d applied, mean lag %.2f ticks%n",
+                    server.getInputCount(), server.getMeanInputLagTicks());
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long checks = 0;
+        long desyncs = 0;
+        long received = 0;
+        for (ArenaClient client : connected) {
+            checks += client.getCheckCount();
+            desyncs += client.getDesyncCount();
+            received += client.getBytesReceived();
+        }
+        System.out.printf("clients: %d bytes received, %d state checks, %d desyncs%n", received, checks, desyncs);
+        if (desyncs > 0) {
+            System.exit(1);
+        }
+    }
+
+    /** Boucle d'un client : applique chaque trame, et tourne au hasard tous les "period" ticks environ. */
+    private static void play(ArenaClient client, Random random, int period) {
+        Directions[] directions = Directions.values();
+        try (client) {
+            long nextTurn = client.getMirror().getTick() + 1 + random.nextInt(period);
+            while (client.receive()) {
+                if (client.getMirror().getTick() >= nextTurn) {
+                    client.send(directions[random.nextInt(directions.length)]);
+                    nextTurn += 1 + random.nextInt(period * 2);
+                }
+            }
+        } catch (IOException e) {
+            // Le serveur a fermé la connexion à la fin de la mesure.
+        }
+    }
+}
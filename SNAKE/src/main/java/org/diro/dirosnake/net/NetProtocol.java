@@ -0,0 +1,171 @@
+package org.diro.dirosnake.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Protocole binaire entre {@link ArenaServer} et {@link ArenaClient}, sur TCP. Chaque trame est précédée de
+ * sa longueur (varint), puis commence par son type. Les entiers sont des varints non signés (7 bits par octet).
+ *
+ * <pre>
+ * serveur -> client
+ *   WELCOME  version slot cols rows snakes dataCount
+ *   SNAPSHOT tick, par donnée (cellule + 1), par S.N.A.K.E. taille puis cellules de la queue à la tête
+ *   DELTA    tick nbEvénements événements nbDonnées (donnée, cellule + 1)...
+ *   CHECK    tick empreinte(8)
+ *   FULL     (serveur plein, la connexion est fermée)
+ * client -> serveur
+ *   INPUT    dernierTickVu direction
+ * </pre>
+ *
+ * Un événement de DELTA est un varint (écart avec le S.N.A.K.E. précédent &lt;&lt; 4 | code) : codes 0 à 3, la tête
+ * avance d'une case dans cette direction et la queue est libérée ; 4 à 7, pareil mais le corps grandit ;
+ * SPAWN, suivi de la cellule ; DEATH. Le client connaît déjà chaque corps, une avancée tient donc souvent en un octet.
+ */
+final class NetProtocol {
+
+    static final int VERSION = 1;
+    static final int DEFAULT_PORT = 7777;
+    static final int MAX_FRAME = 16 << 20;
+    // Une trame CHECK tous les CHECK_INTERVAL ticks.
+    static final int CHECK_INTERVAL = 60;
+
+    static final int WELCOME = 1;
+    static final int SNAPSHOT = 2;
+    static final int DELTA = 3;
+    static final int CHECK = 4;
+    static final int FULL = 5;
+    static final int INPUT = 16;
+
+    static final int MOVE = 0;
+    static final int GROW = 4;
+    static final int SPAWN = 8;
+    static final int DEATH = 9;
+
+    private NetProtocol() {
+    }
+
+    /**
+     * Lit une trame complète (sans sa longueur). Retourne null si le flux se termine proprement entre deux trames.
+     */
+    static byte[] readFrame(InputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return null;
+                }
+                throw new EOFException("Truncated frame length");
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            if (shift >= 28) {
+                throw new IOException("Malformed frame length");
+            }
+        }
+        if (length <= 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid frame length " + length);
+        }
+
+        byte[] frame = in.readNBytes(length);
+        if (frame.length != length) {
+            throw new EOFException("Truncated frame");
+        }
+        return frame;
+    }
+
+    /** Tampon d'écriture qui grandit par doublement, réutilisé d'une trame à l'autre. */
+    static final class Output {
+        byte[] bytes = new byte[256];
+        int length = 0;
+
+        void write(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void write(Output other) {
+            for (int i = 0; i < other.length; i++) {
+                write(other.bytes[i]);
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        /** Copie le contenu, précédé de sa longueur : la trame est prête à être envoyée telle quelle. */
+        byte[] toFrame() {
+            Output frame = new Output();
+            frame.writeVarLong(length);
+            frame.write(this);
+            return Arrays.copyOf(frame.bytes, frame.length);
+        }
+
+        void clear() {
+            length = 0;
+        }
+    }
+
+    /** Lecture séquentielle d'une trame. */
+    static final class Input {
+        private final byte[] bytes;
+        private int position = 0;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int read() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Truncated message");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in message");
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Value out of range in message");
+            }
+            return (int) value;
+        }
+
+        long readLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+    }
+}
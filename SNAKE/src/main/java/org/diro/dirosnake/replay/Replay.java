@@ -0,0 +1,154 @@
+package org.diro.dirosnake.replay;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.GameOutcome;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reprise décodée. Les changements de direction sont gardés dans deux tableaux primitifs (tick, direction)
+ * pour que la relecture ne crée aucun objet par tick.
+ */
+public class Replay {
+
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    private final int cols;
+    private final int rows;
+    private final long seed;
+    private final Directions initialDirection;
+    private final long[] changeTicks;
+    private final byte[] changeDirections;
+    private final long finalTicks;
+    private final int finalScore;
+    private final GameOutcome finalOutcome;
+    private final long finalHash;
+
+    private Replay(int cols, int rows, long seed, Directions initialDirection, long[] changeTicks,
+                   byte[] changeDirections, long finalTicks, int finalScore, GameOutcome finalOutcome, long finalHash) {
+        this.cols = cols;
+        this.rows = rows;
+        this.seed = seed;
+        this.initialDirection = initialDirection;
+        this.changeTicks = changeTicks;
+        this.changeDirections = changeDirections;
+        this.finalTicks = finalTicks;
+        this.finalScore = finalScore;
+        this.finalOutcome = finalOutcome;
+        this.finalHash = finalHash;
+    }
+
+    public static Replay read(Path file) throws IOException {
+        return read(Files.readAllBytes(file));
+    }
+
+    public static Replay read(byte[] bytes) throws IOException {
+        ReplayFormat.Input in = new ReplayFormat.Input(bytes);
+        for (byte b : ReplayFormat.MAGIC) {
+            if (in.read() != b) {
+                throw new IOException("Not a replay file");
+            }
+        }
+        int version = in.read();
+        if (version != ReplayFormat.VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+
+        int cols = in.readVarInt();
+        int rows = in.readVarInt();
+        long seed = in.readLong();
+        Directions initialDirection = direction(in.readVarInt());
+
+        int changeCount = in.readVarInt();
+        long[] changeTicks = new long[changeCount];
+        byte[] changeDirections = new byte[changeCount];
+        long tick = 0;
+        for (int i = 0; i < changeCount; i++) {
+            long change = in.readVarLong();
+            tick += change >>> 2;
+            changeTicks[i] = tick;
+            changeDirections[i] = (byte) (change & 3);
+        }
+
+        long finalTicks = in.readVarLong();
+        int finalScore = in.readVarInt();
+        int outcome = in.readVarInt();
+        if (outcome >= GameOutcome.values().length) {
+            throw new IOException("Unknown outcome in replay");
+        }
+        long finalHash = in.readLong();
+
+        return new Replay(cols, rows, seed, initialDirection, changeTicks, changeDirections,
+                finalTicks, finalScore, GameOutcome.values()[outcome], finalHash);
+    }
+
+    private static Directions direction(int ordinal) throws IOException {
+        if (ordinal >= DIRECTIONS.length) {
+            throw new IOException("Unknown direction in replay");
+        }
+        return DIRECTIONS[ordinal];
+    }
+
+    /** Rejoue la partie dans "game" (qui doit avoir la taille de la reprise), aussi vite que possible. */
+    public void play(SnakeGame game) {
+        game.reset(seed);
+        game.setDirection(initialDirection);
+
+        int next = 0;
+        while (!game.isOver() && game.getTicks() < finalTicks) {
+            if (next < changeTicks.length && changeTicks[next] == game.getTicks()) {
+                game.setDirection(DIRECTIONS[changeDirections[next++]]);
+            }
+            game.tick();
+        }
+    }
+
+    /** Vrai si "game", après {@link #play}, est dans l'état final enregistré. */
+    public boolean matches(SnakeGame game) {
+        return game.getTicks() == finalTicks
+                && game.getScore() == finalScore
+                && game.getOutcome() == finalOutcome
+                && game.stateHash() == finalHash;
+    }
+
+    public SnakeGame newGame() {
+        return new SnakeGame(cols, rows, seed);
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getChangeCount() {
+        return changeTicks.length;
+    }
+
+    public long getFinalTicks() {
+        return finalTicks;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public GameOutcome getFinalOutcome() {
+        return finalOutcome;
+    }
+
+    @Override
+    public String toString() {
+        return "Replay[" + cols + "x" + rows + ", seed " + seed + ", " + changeTicks.length + " changes, "
+                + finalTicks + " ticks, score " + finalScore + ", " + finalOutcome + "]";
+    }
+}
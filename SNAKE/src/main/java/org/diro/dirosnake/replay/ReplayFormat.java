@@ -0,0 +1,105 @@
+package org.diro.dirosnake.replay;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Format binaire des reprises. Tous les entiers sont des varints non signés (7 bits par octet), sauf la
+ * graine et l'empreinte finale qui occupent 8 octets.
+ *
+ * <pre>
+ * "SNKR" version cols rows seed(8) direction changes
+ * changes x varint((ticks depuis le changement précédent &lt;&lt; 2) | direction)
+ * ticks score issue empreinte(8)
+ * </pre>
+ */
+final class ReplayFormat {
+
+    static final byte[] MAGIC = {'S', 'N', 'K', 'R'};
+    static final int VERSION = 1;
+
+    private ReplayFormat() {
+    }
+
+    /** Tampon d'écriture qui grandit par doublement. */
+    static final class Output {
+        byte[] bytes = new byte[256];
+        int length = 0;
+
+        void write(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void write(byte[] values) {
+            for (byte value : values) {
+                write(value);
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void clear() {
+            length = 0;
+        }
+    }
+
+    /** Lecture séquentielle d'un tableau d'octets. */
+    static final class Input {
+        private final byte[] bytes;
+        private int position = 0;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int read() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Truncated replay");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in replay");
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Value out of range in replay");
+            }
+            return (int) value;
+        }
+
+        long readLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.diro.dirosnake.replay;
+
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Relit des reprises sans affichage et vérifie que chacune retombe exactement sur son état final. Sert à la
+ * fois de test de non-régression du déterminisme et de mesure de la vitesse de simulation.
+ *
+ * <pre>java -cp target/classes org.diro.dirosnake.replay.ReplayPlayer [--repeat n] replays/</pre>
+ */
+public class ReplayPlayer {
+
+    private int verified = 0;
+    private int failed = 0;
+    private long ticks = 0;
+
+    /** Rejoue "replay" et retourne vrai si l'état final correspond à l'enregistrement. */
+    public boolean verify(Replay replay) {
+        SnakeGame game = replay.newGame();
+        replay.play(game);
+        ticks += game.getTicks();
+
+        if (replay.matches(game)) {
+            verified++;
+            return true;
+        }
+        failed++;
+        return false;
+    }
+
+    public int getVerifiedCount() {
+        return verified;
+    }
+
+    public int getFailedCount() {
+        return failed;
+    }
+
+    public long getTickCount() {
+        return ticks;
+    }
+
+    private static void collect(Path path, List<Path> files) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : (Iterable<Path>) children.sorted()::iterator) {
+                    collect(child, files);
+                }
+            }
+        } else if (path.toString().endsWith(".snkr")) {
+            files.add(path);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int repeat = 1;
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--repeat") && i + 1 < args.length) {
+                repeat = Integer.parseInt(args[++i]);
+            } else {
+                collect(Path.of(args[i]), files);
+            }
+        }
+        if (files.isEmpty()) {
+            collect(Path.of("replays"), files);
+        }
+
+        List<Replay> replays = new ArrayList<>();
+        List<Path> sources = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                replays.add(Replay.read(file));
+                sources.add(file);
+            } catch (IOException e) {
+                System.out.println("Unreadable replay " + file + ": " + e.getMessage());
+            }
+        }
+
+        ReplayPlayer player = new ReplayPlayer();
+        long start = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            for (int i = 0; i < replays.size(); i++) {
+                if (!player.verify(replays.get(i)) && r == 0) {
+                    System.out.println("Desync in " + sources.get(i) + ": " + replays.get(i));
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int played = player.verified + player.failed;
+        System.out.printf("%d replays played (%d verified, %d desync) in %.3f s%n",
+                played, player.verified, player.failed, seconds);
+        if (seconds > 0) {
+            System.out.printf("%.0f replays/s, %.0f ticks/s%n", played / seconds, player.ticks / seconds);
+        }
+        if (player.failed > 0) {
+            System.exit(1);
+        }
+    }
+}
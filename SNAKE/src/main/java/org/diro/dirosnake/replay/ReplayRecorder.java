@@ -0,0 +1,75 @@
+package org.diro.dirosnake.replay;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Enregistre une partie : la graine et chaque changement de direction, codé par son écart en ticks avec le
+ * précédent. Une partie de plusieurs minutes tient en quelques centaines d'octets.
+ */
+public class ReplayRecorder {
+
+    private final ReplayFormat.Output changes = new ReplayFormat.Output();
+    private int cols;
+    private int rows;
+    private long seed;
+    private Directions initialDirection;
+    private Directions lastDirection;
+    private long lastTick;
+    private int changeCount;
+
+    public void begin(int cols, int rows, long seed, Directions direction) {
+        this.cols = cols;
+        this.rows = rows;
+        this.seed = seed;
+        this.initialDirection = direction;
+        this.lastDirection = direction;
+        this.lastTick = 0;
+        this.changeCount = 0;
+        changes.clear();
+    }
+
+    /** Note la direction appliquée avant le tick "tick" (valeur de {@link SnakeGame#getTicks()} avant l'appel). */
+    public void record(long tick, Directions direction) {
+        if (direction == lastDirection) {
+            return;
+        }
+        changes.writeVarLong(((tick - lastTick) << 2) | direction.ordinal());
+        lastTick = tick;
+        lastDirection = direction;
+        changeCount++;
+    }
+
+    /** Termine l'enregistrement avec l'état final de la partie et retourne la reprise encodée. */
+    public byte[] finish(SnakeGame game) {
+        ReplayFormat.Output out = new ReplayFormat.Output();
+        out.write(ReplayFormat.MAGIC);
+        out.write(ReplayFormat.VERSION);
+        out.writeVarLong(cols);
+        out.writeVarLong(rows);
+        out.writeLong(seed);
+        out.writeVarLong(initialDirection.ordinal());
+        out.writeVarLong(changeCount);
+        for (int i = 0; i < changes.length; i++) {
+            out.write(changes.bytes[i]);
+        }
+        out.writeVarLong(game.getTicks());
+        out.writeVarLong(game.getScore());
+        out.writeVarLong(game.getOutcome().ordinal());
+        out.writeLong(game.stateHash());
+        return Arrays.copyOf(out.bytes, out.length);
+    }
+
+    /** Écrit la reprise dans "directory" sous un nom unique et retourne son chemin. */
+    public Path save(Path directory, SnakeGame game) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("snake-" + System.currentTimeMillis() + "-" + Long.toHexString(seed) + ".snkr");
+        Files.write(file, finish(game));
+        return file;
+    }
+}
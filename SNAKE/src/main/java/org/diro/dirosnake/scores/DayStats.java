@@ -0,0 +1,41 @@
+package org.diro.dirosnake.scores;
+
+import java.time.LocalDate;
+
+/** Résumé des parties terminées un jour donné. */
+public final class DayStats {
+
+    private final LocalDate date;
+    private final int count;
+    private final int best;
+    private final long totalScore;
+
+    DayStats(LocalDate date, int count, int best, long totalScore) {
+        this.date = date;
+        this.count = count;
+        this.best = best;
+        this.totalScore = totalScore;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Meilleur score du jour, 0 s'il n'y a eu aucune partie. */
+    public int getBest() {
+        return best;
+    }
+
+    public double getMeanScore() {
+        return count == 0 ? 0 : (double) totalScore / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d games, best %d, mean %.2f", date, count, best, getMeanScore());
+    }
+}
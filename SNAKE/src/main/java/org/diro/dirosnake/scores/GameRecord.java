@@ -0,0 +1,59 @@
+package org.diro.dirosnake.scores;
+
+/** Une partie terminée, telle que gardée dans le {@link ScoreStore}. */
+public final class GameRecord {
+
+    private final long endedAt;
+    private final int score;
+    private final int length;
+    private final long ticks;
+    private final long seed;
+    private final String replay;
+
+    /**
+     * @param endedAt fin de la partie, en millisecondes depuis l'époque Unix
+     * @param ticks   durée de la partie en ticks de simulation
+     * @param replay  fichier de reprise (relatif au dossier des reprises), ou une chaîne vide
+     */
+    public GameRecord(long endedAt, int score, int length, long ticks, long seed, String replay) {
+        if (score < 0 || length < 0 || ticks < 0) {
+            throw new IllegalArgumentException("Negative score, length or ticks");
+        }
+        this.endedAt = endedAt;
+        this.score = score;
+        this.length = length;
+        this.ticks = ticks;
+        this.seed = seed;
+        this.replay = replay == null ? "" : replay;
+    }
+
+    public long getEndedAt() {
+        return endedAt;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getReplay() {
+        return replay;
+    }
+
+    @Override
+    public String toString() {
+        return "score " + score + ", length " + length + ", " + ticks + " ticks, seed " + seed
+                + (replay.isEmpty() ? "" : ", replay " + replay);
+    }
+}
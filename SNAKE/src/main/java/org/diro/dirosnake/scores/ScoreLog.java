@@ -0,0 +1,133 @@
+package org.diro.dirosnake.scores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des parties, en ajout seulement. Un enregistrement :
+ *
+ * <pre>
+ * longueur(4) [fin(8) score(4) longueur(4) ticks(8) graine(8) reprise(2 + UTF-8)] crc32(4)
+ * </pre>
+ *
+ * Le CRC permet de repérer un enregistrement coupé par un arrêt brutal ; il est alors tronqué à l'ouverture.
+ */
+final class ScoreLog implements Closeable {
+
+    private static final int FRAME = 8;
+    private static final int FIXED_PAYLOAD = 32 + 2;
+    private static final int MAX_REPLAY_BYTES = 1024;
+
+    private final FileChannel channel;
+    private long size;
+
+    ScoreLog(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = channel.size();
+    }
+
+    /** Ajoute l'enregistrement à la fin du journal et retourne sa position. */
+    long append(GameRecord record) throws IOException {
+        byte[] replay = record.getReplay().getBytes(StandardCharsets.UTF_8);
+        if (replay.length > MAX_REPLAY_BYTES) {
+            throw new IllegalArgumentException("Replay name too long: " + record.getReplay());
+        }
+
+        int payload = FIXED_PAYLOAD + replay.length;
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME + payload);
+        buffer.putInt(payload);
+        buffer.putLong(record.getEndedAt());
+        buffer.putInt(record.getScore());
+        buffer.putInt(record.getLength());
+        buffer.putLong(record.getTicks());
+        buffer.putLong(record.getSeed());
+        buffer.putShort((short) replay.length);
+        buffer.put(replay);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, payload);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        long offset = size;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        size += FRAME + payload;
+        return offset;
+    }
+
+    /** Lit l'enregistrement à "offset", ou retourne null s'il est incomplet ou corrompu. */
+    GameRecord read(long offset) throws IOException {
+        if (offset < 0 || offset + FRAME > size) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(header, offset);
+        int payload = header.getInt(0);
+        if (payload < FIXED_PAYLOAD || payload > FIXED_PAYLOAD + MAX_REPLAY_BYTES || offset + FRAME + payload > size) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(payload + 4);
+        readFully(buffer, offset + 4);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, payload);
+        if ((int) crc.getValue() != buffer.getInt(payload)) {
+            return null;
+        }
+
+        buffer.flip();
+        long endedAt = buffer.getLong();
+        int score = buffer.getInt();
+        int length = buffer.getInt();
+        long ticks = buffer.getLong();
+        long seed = buffer.getLong();
+        int replayLength = buffer.getShort() & 0xFFFF;
+        if (replayLength != payload - FIXED_PAYLOAD || score < 0 || length < 0 || ticks < 0) {
+            return null;
+        }
+        String replay = new String(buffer.array(), FIXED_PAYLOAD, replayLength, StandardCharsets.UTF_8);
+        return new GameRecord(endedAt, score, length, ticks, seed, replay);
+    }
+
+    /** Taille de l'enregistrement à "offset" (lu sans vérification). */
+    long recordSize(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(header, offset);
+        return FRAME + header.getInt(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of score log");
+            }
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /** Coupe le journal à "newSize" (fin du dernier enregistrement valide). */
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size = newSize;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
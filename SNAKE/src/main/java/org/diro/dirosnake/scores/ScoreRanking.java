@@ -0,0 +1,197 @@
+package org.diro.dirosnake.scores;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Classement compacté : les parties triées par score décroissant (puis par ordre d'arrivée), projetées en
+ * mémoire en lecture seule. Un fichier n'est jamais modifié ni remplacé : chaque compaction écrit une nouvelle
+ * génération, ranking-&lt;couvertes&gt;.idx. Java ne libère une projection qu'au ramasse-miettes, et Windows refuse
+ * de supprimer ou de remplacer un fichier projeté : les anciennes générations sont donc supprimées au mieux,
+ * et celles qui sont encore projetées le seront à la compaction ou à l'ouverture suivante.
+ *
+ * <pre>
+ * "SNKS" version(4) couvertes(8)
+ * n x [score(4) position dans l'index(4)]
+ * </pre>
+ *
+ * "couvertes" est le nombre de premières parties de l'index que contient le classement ; les suivantes
+ * attendent la prochaine compaction.
+ */
+final class ScoreRanking {
+
+    private static final int MAGIC = 0x534E4B53;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int ENTRY = 8;
+    private static final String PREFIX = "ranking-";
+    private static final String SUFFIX = ".idx";
+
+    private final MappedByteBuffer map;
+    private final int size;
+
+    private ScoreRanking(MappedByteBuffer map, int size) {
+        this.map = map;
+        this.size = size;
+    }
+
+    static ScoreRanking empty() {
+        return new ScoreRanking(null, 0);
+    }
+
+    /**
+     * Ouvre la plus récente génération de "directory" qui ne couvre pas plus de "maxCovered" parties (les autres
+     * couvrent des parties perdues), ou retourne un classement vide s'il n'y en a pas.
+     */
+    static ScoreRanking openLatest(Path directory, int maxCovered) throws IOException {
+        int latest = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                int covered = generation(file);
+                if (covered <= maxCovered) {
+                    latest = Math.max(latest, covered);
+                }
+            }
+        }
+        return latest < 0 ? empty() : open(directory.resolve(PREFIX + latest + SUFFIX));
+    }
+
+    /** Supprime les générations autres que "covered" et les fichiers temporaires ; ignore celles encore ouvertes. */
+    static void deleteStale(Path directory, int covered) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                int generation = generation(file);
+                if ((generation >= 0 && generation != covered) || (name.startsWith(PREFIX) && name.endsWith(".tmp"))) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Encore projetée (Windows) : réessayée la prochaine fois.
+                    }
+                }
+            }
+        }
+    }
+
+    /** Nombre de parties couvertes par la génération "file", ou -1 si ce n'est pas un classement. */
+    private static int generation(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ScoreRanking open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER || (length - HEADER) % ENTRY != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Corrupted score ranking: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            long covered = map.getLong(8);
+            int size = (int) ((length - HEADER) / ENTRY);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || covered != size) {
+                throw new IOException("Corrupted score ranking: " + file);
+            }
+            return new ScoreRanking(map, size);
+        }
+    }
+
+    /**
+     * Fusionne ce classement avec des parties récentes (déjà triées de la même façon) dans une nouvelle
+     * génération de "directory", qui apparaît d'un seul coup, et l'ouvre. Coûte O(taille du classement +
+     * parties récentes), en flux. Ce classement reste valable.
+     */
+    ScoreRanking mergeInto(Path directory, int[] scores, int[] positions, int count) throws IOException {
+        Path file = directory.resolve(PREFIX + (size + count) + SUFFIX);
+        Path temporary = directory.resolve(PREFIX + (size + count) + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong((long) size + count);
+
+            int i = 0;
+            int j = 0;
+            while (i < size || j < count) {
+                boolean fromRanking = j == count
+                        || (i < size && ranksBefore(getScore(i), getPosition(i), scores[j], positions[j]));
+                if (buffer.remaining() < ENTRY) {
+                    write(channel, buffer);
+                }
+                if (fromRanking) {
+                    buffer.putInt(getScore(i));
+                    buffer.putInt(getPosition(i));
+                    i++;
+                } else {
+                    buffer.putInt(scores[j]);
+                    buffer.putInt(positions[j]);
+                    j++;
+                }
+            }
+            write(channel, buffer);
+            channel.force(true);
+        }
+        // Une génération du même nom ne peut venir que d'avant une coupure : elle n'a jamais été projetée.
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(file);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Ordre du classement : score décroissant, puis la partie la plus ancienne d'abord. */
+    static boolean ranksBefore(int score, int position, int otherScore, int otherPosition) {
+        return score > otherScore || (score == otherScore && position < otherPosition);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Les parties 0 à getCovered() - 1 de l'index sont dans le classement. */
+    int getCovered() {
+        return size;
+    }
+
+    int getScore(int rank) {
+        return map.getInt(HEADER + rank * ENTRY);
+    }
+
+    int getPosition(int rank) {
+        return map.getInt(HEADER + rank * ENTRY + 4);
+    }
+
+    /** Nombre de parties dont le score est au moins "score" (recherche dichotomique). */
+    int countAtLeast(int score) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getScore(middle) >= score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
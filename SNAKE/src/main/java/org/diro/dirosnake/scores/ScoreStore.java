@@ -0,0 +1,396 @@
+package org.diro.dirosnake.scores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Meilleurs scores et statistiques, sur disque. Trois fichiers dans un dossier :
+ * <ul>
+ *     <li>games.log, le journal en ajout seulement de toutes les parties ({@link ScoreLog}) ;</li>
+ *     <li>games.idx, un index projeté en mémoire, une entrée fixe par partie, dans l'ordre d'arrivée
+ *     ({@link TimeIndex}) : les requêtes par jour y font une recherche dichotomique ;</li>
+ *     <li>ranking-&lt;n&gt;.idx, le classement trié par score des n premières parties ({@link ScoreRanking}).</li>
+ * </ul>
+ * Les parties arrivées depuis la dernière compaction forment une petite "queue" triée en mémoire. Un top N
+ * fusionne la tête du classement et la queue, un centile fait quelques recherches dichotomiques : rien ne
+ * dépend de la taille de l'historique, qui n'est jamais chargé dans le tas. La compaction fusionne la queue
+ * dans un nouveau classement, hors verrou, en tâche de fond ou dès que la queue atteint {@link #MAX_TAIL}.
+ *
+ * Les fins de parties de l'index sont gardées croissantes (une horloge qui recule est ramenée à la fin
+ * précédente) ; le journal garde l'heure réelle.
+ *
+ * Durabilité : le journal est forcé sur le disque avant que la partie n'entre dans l'index, et l'index avant
+ * qu'une compaction n'écrive un classement. Après une coupure, l'ouverture coupe l'index au dernier
+ * enregistrement valide du journal (CRC vérifié), et oublie le classement s'il couvre des parties perdues.
+ */
+public class ScoreStore implements Closeable {
+
+    // Au-delà, l'ajout compacte lui-même : l'insertion dans la queue coûte O(queue).
+    static final int MAX_TAIL = 16_384;
+
+    private final Path directory;
+    private final ScoreLog log;
+    private final TimeIndex index;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock compaction = new ReentrantLock();
+
+    private ScoreRanking ranking;
+    // Queue : parties pas encore compactées, triées comme le classement.
+    private int[] tailScores = new int[256];
+    private int[] tailPositions = new int[256];
+    private int tailSize = 0;
+
+    private ScheduledExecutorService compactor;
+
+    private ScoreStore(Path directory) throws IOException {
+        this.directory = directory;
+        this.log = new ScoreLog(directory.resolve("games.log"));
+        this.index = new TimeIndex(directory.resolve("games.idx"));
+        this.ranking = ScoreRanking.empty();
+    }
+
+    /** Ouvre (ou crée) le magasin de "directory" et récupère les parties écrites au journal mais pas indexées. */
+    public static ScoreStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ScoreStore store = new ScoreStore(directory);
+        try {
+            store.recover();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void recover() throws IOException {
+        // Entrées de l'index sans enregistrement valide : coupure avant que le journal n'atteigne le disque.
+        int count = index.count();
+        while (count > 0 && log.read(index.getOffset(count - 1)) == null) {
+            count--;
+        }
+        if (count < index.count()) {
+            index.truncate(count);
+        }
+        long end = 0;
+        if (count > 0) {
+            long last = index.getOffset(count - 1);
+            end = last + log.recordSize(last);
+        }
+        // Enregistrements complets après le dernier indexé : arrêt entre l'écriture du journal et celle de l'index.
+        GameRecord record;
+        while (end < log.size() && (record = log.read(end)) != null) {
+            index(record, end);
+            end += log.recordSize(end);
+        }
+        if (end < log.size()) {
+            log.truncate(end);
+        }
+
+        // Un classement qui couvre des parties perdues ne vaut plus rien : on prend une génération plus ancienne,
+        // ou aucune, et les parties suivantes repassent par la queue.
+        ranking = ScoreRanking.openLatest(directory, index.count());
+        ScoreRanking.deleteStale(directory, ranking.getCovered());
+        for (int position = ranking.getCovered(); position < index.count(); position++) {
+            insertTail(index.getScore(position), position);
+        }
+    }
+
+    /** Ajoute une partie terminée et retourne sa position (voir {@link #get(int)}). */
+    public int append(GameRecord record) throws IOException {
+        boolean full;
+        int position;
+        lock.writeLock().lock();
+        try {
+            long offset = log.append(record);
+            // L'index ne doit jamais pointer vers un enregistrement qui n'est pas encore sur le disque.
+            log.force();
+            index(record, offset);
+            position = index.count() - 1;
+            insertTail(record.getScore(), position);
+            full = tailSize >= MAX_TAIL;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full) {
+            compact();
+        }
+        return position;
+    }
+
+    private void index(GameRecord record, long offset) throws IOException {
+        int count = index.count();
+        long endedAt = record.getEndedAt();
+        if (count > 0) {
+            endedAt = Math.max(endedAt, index.getEndedAt(count - 1));
+        }
+        index.append(endedAt, offset, record.getTicks(), record.getScore(), record.getLength());
+    }
+
+    private void insertTail(int score, int position) {
+        if (tailSize == tailScores.length) {
+            tailScores = Arrays.copyOf(tailScores, tailSize * 2);
+            tailPositions = Arrays.copyOf(tailPositions, tailSize * 2);
+        }
+        // Les positions arrivent croissantes : à score égal, la nouvelle partie passe après les autres.
+        int at = tailCountAtLeast(score);
+        System.arraycopy(tailScores, at, tailScores, at + 1, tailSize - at);
+        System.arraycopy(tailPositions, at, tailPositions, at + 1, tailSize - at);
+        tailScores[at] = score;
+        tailPositions[at] = position;
+        tailSize++;
+    }
+
+    private int tailCountAtLeast(int score) {
+        int low = 0;
+        int high = tailSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tailScores[middle] >= score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return index.count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Partie numéro "position", dans l'ordre d'arrivée. */
+    public GameRecord get(int position) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (position < 0 || position >= index.count()) {
+                throw new IndexOutOfBoundsException("No game " + position);
+            }
+            GameRecord record = log.read(index.getOffset(position));
+            if (record == null) {
+                throw new IOException("Corrupted score log record " + position);
+            }
+            return record;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Les "n" meilleures parties, du meilleur score au moins bon ; à égalité, la plus ancienne d'abord. */
+    public List<GameRecord> top(int n) throws IOException {
+        lock.readLock().lock();
+        try {
+            List<GameRecord> best = new ArrayList<>(Math.min(n, index.count()));
+            int i = 0;
+            int j = 0;
+            while (best.size() < n && (i < ranking.size() || j < tailSize)) {
+                int position;
+                if (j == tailSize || (i < ranking.size() && ScoreRanking.ranksBefore(
+                        ranking.getScore(i), ranking.getPosition(i), tailScores[j], tailPositions[j]))) {
+                    position = ranking.getPosition(i++);
+                } else {
+                    position = tailPositions[j++];
+                }
+                GameRecord record = log.read(index.getOffset(position));
+                if (record == null) {
+                    throw new IOException("Corrupted score log record " + position);
+                }
+                best.add(record);
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rang qu'aurait "score" dans le classement (1 = meilleur) : une partie de plus que celles qui font mieux. */
+    public int rank(int score) {
+        lock.readLock().lock();
+        try {
+            return countAtLeast(score + 1) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score au centile "p" (entre 0 et 1) de toutes les parties : la part "p" des parties a fait ce score
+     * ou moins. Recherche dichotomique sur le score, O(log(score max) x log(parties)).
+     */
+    public int percentile(double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("Percentile out of [0, 1]: " + p);
+        }
+        lock.readLock().lock();
+        try {
+            int total = ranking.size() + tailSize;
+            if (total == 0) {
+                return 0;
+            }
+            int ascending = Math.max(0, (int) Math.ceil(p * total) - 1);
+            // Le score cherché est le plus grand "s" tel qu'au moins (total - ascending) parties font "s" ou mieux.
+            int needed = total - ascending;
+            int low = 0;
+            int high = Math.max(ranking.size() > 0 ? ranking.getScore(0) : 0, tailSize > 0 ? tailScores[0] : 0);
+            while (low < high) {
+                int middle = (int) (((long) low + high + 1) >>> 1);
+                if (countAtLeast(middle) >= needed) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int countAtLeast(int score) {
+        return ranking.countAtLeast(score) + tailCountAtLeast(score);
+    }
+
+    /** Parties terminées le jour "date" (fuseau "zone") : recherche dichotomique, puis O(parties du jour). */
+    public DayStats day(LocalDate date, ZoneId zone) {
+        long from = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        lock.readLock().lock();
+        try {
+            int first = index.firstAtOrAfter(from);
+            int end = index.firstAtOrAfter(to);
+            int best = 0;
+            long total = 0;
+            for (int position = first; position < end; position++) {
+                int score = index.getScore(position);
+                best = Math.max(best, score);
+                total += score;
+            }
+            return new DayStats(date, end - first, best, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Nombre de parties pas encore fusionnées dans le classement. */
+    public int getTailSize() {
+        lock.readLock().lock();
+        try {
+            return tailSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fusionne la queue dans un nouveau classement. L'écriture se fait hors verrou : les requêtes et les ajouts
+     * continuent pendant ce temps, seul l'échange final des classements bloque. Retourne faux s'il n'y avait rien.
+     */
+    public boolean compact() throws IOException {
+        compaction.lock();
+        try {
+            ScoreRanking base;
+            int[] scores;
+            int[] positions;
+            int merged;
+            lock.readLock().lock();
+            try {
+                if (tailSize == 0) {
+                    return false;
+                }
+                // Le classement ne doit jamais couvrir des entrées de l'index qui ne sont pas encore sur le disque.
+                index.force();
+                base = ranking;
+                merged = tailSize;
+                scores = Arrays.copyOf(tailScores, merged);
+                positions = Arrays.copyOf(tailPositions, merged);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            ScoreRanking next = base.mergeInto(directory, scores, positions, merged);
+
+            lock.writeLock().lock();
+            try {
+                ranking = next;
+                // Garde les parties arrivées pendant la fusion, dans le même ordre.
+                int kept = 0;
+                for (int i = 0; i < tailSize; i++) {
+                    if (tailPositions[i] >= ranking.getCovered()) {
+                        tailScores[kept] = tailScores[i];
+                        tailPositions[kept] = tailPositions[i];
+                        kept++;
+                    }
+                }
+                tailSize = kept;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ScoreRanking.deleteStale(directory, next.getCovered());
+            return true;
+        } finally {
+            compaction.unlock();
+        }
+    }
+
+    /** Lance la compaction de fond : toutes les "period" secondes, si au moins "minTail" parties attendent. */
+    public synchronized void startCompaction(long period, int minTail) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "score-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                if (getTailSize() >= minTail) {
+                    compact();
+                }
+            } catch (IOException e) {
+                System.getLogger(ScoreStore.class.getName())
+                        .log(System.Logger.Level.WARNING, "Score compaction failed: " + e.getMessage());
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (compactor != null) {
+                compactor.shutdown();
+                try {
+                    compactor.awaitTermination(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                compactor = null;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            log.force();
+            log.close();
+            index.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
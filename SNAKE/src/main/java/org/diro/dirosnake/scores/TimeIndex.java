@@ -0,0 +1,140 @@
+package org.diro.dirosnake.scores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Index des parties dans l'ordre d'arrivée, projeté en mémoire : une entrée de taille fixe par partie, que l'on
+ * lit sans rien charger dans le tas. La position d'une partie dans cet index sert d'identifiant partout ailleurs.
+ *
+ * <pre>
+ * "SNKI" version(4) nombre(8)
+ * nombre x [fin(8) position dans le journal(8) ticks(8) score(4) longueur(4)]
+ * </pre>
+ *
+ * Le nombre d'entrées de l'en-tête n'est écrit qu'après l'entrée elle-même : c'est le point de validation.
+ * La projection n'est pas forcée sur le disque à chaque ajout : après une coupure, l'index peut survivre au
+ * journal, et {@link ScoreStore} le raccourcit à l'ouverture ({@link #truncate(int)}).
+ */
+final class TimeIndex implements Closeable {
+
+    private static final int MAGIC = 0x534E4B49;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    static final int ENTRY = 32;
+    private static final int INITIAL_CAPACITY = 4096;
+    // Une seule projection : jusqu'à environ 67 millions de parties.
+    private static final long MAX_ENTRIES = (Integer.MAX_VALUE - HEADER) / ENTRY;
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private long capacity;
+    private int count;
+
+    TimeIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() < HEADER;
+        long existing = Math.max(0, (channel.size() - HEADER) / ENTRY);
+        remap(Math.max(INITIAL_CAPACITY, existing));
+
+        if (fresh) {
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putLong(8, 0);
+        } else if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("Not a score index: " + file);
+        }
+
+        long stored = map.getLong(8);
+        if (stored < 0 || stored > existing) {
+            throw new IOException("Corrupted score index header: " + file);
+        }
+        this.count = (int) stored;
+    }
+
+    private void remap(long entries) throws IOException {
+        if (entries > MAX_ENTRIES) {
+            throw new IOException("Score index is full");
+        }
+        // Projeter au-delà de la fin agrandit le fichier.
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + entries * ENTRY);
+        capacity = entries;
+    }
+
+    void append(long endedAt, long offset, long ticks, int score, int length) throws IOException {
+        if (count == capacity) {
+            remap(Math.min(MAX_ENTRIES, capacity * 2));
+        }
+        int at = HEADER + count * ENTRY;
+        map.putLong(at, endedAt);
+        map.putLong(at + 8, offset);
+        map.putLong(at + 16, ticks);
+        map.putInt(at + 24, score);
+        map.putInt(at + 28, length);
+        count++;
+        map.putLong(8, count);
+    }
+
+    /** Oublie les entrées à partir de "newCount". */
+    void truncate(int newCount) {
+        if (newCount < 0 || newCount > count) {
+            throw new IllegalArgumentException("Cannot truncate " + count + " entries to " + newCount);
+        }
+        count = newCount;
+        map.putLong(8, count);
+    }
+
+    int count() {
+        return count;
+    }
+
+    long getEndedAt(int position) {
+        return map.getLong(HEADER + position * ENTRY);
+    }
+
+    long getOffset(int position) {
+        return map.getLong(HEADER + position * ENTRY + 8);
+    }
+
+    long getTicks(int position) {
+        return map.getLong(HEADER + position * ENTRY + 16);
+    }
+
+    int getScore(int position) {
+        return map.getInt(HEADER + position * ENTRY + 24);
+    }
+
+    int getLength(int position) {
+        return map.getInt(HEADER + position * ENTRY + 28);
+    }
+
+    /** Première position dont la fin est à "time" ou après (les fins sont croissantes). */
+    int firstAtOrAfter(long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getEndedAt(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
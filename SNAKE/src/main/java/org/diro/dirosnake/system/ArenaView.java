@@ -0,0 +1,160 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.diro.dirosnake.AssetCache;
+import org.diro.dirosnake.Constants;
+import org.diro.dirosnake.EntityTypes;
+import org.diro.dirosnake.core.ArenaGame;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+
+import java.util.ArrayList;
+
+/**
+ * Vue FXGL d'une {@link ArenaGame}. Comme {@link SnakeView}, seules les cellules dans le champ de la caméra ont
+ * une entité : les segments viennent de la grille partagée, les têtes et les données sont filtrées par le champ.
+ * La caméra suit le S.N.A.K.E. numéro 0, celui du joueur.
+ */
+public class ArenaView {
+
+    private static final Color OTHER_HEAD_COLOR = Color.color(0.85, 0.35, 0.25);
+
+    private final EntityPool bodyPool = new EntityPool(ArenaView::createBodySegment);
+    private final EntityPool playerHeadPool = new EntityPool(() -> createHead(Constants.SNAKE_HEAD_COLOR));
+    private final EntityPool headPool = new EntityPool(() -> createHead(OTHER_HEAD_COLOR));
+    private final EntityPool dataPool = new EntityPool(ArenaView::createData);
+    private final Camera camera = new Camera(Constants.WIDTH, Constants.HEIGHT, Constants.GRID_SCALE);
+
+    private final ArrayList<Entity> bodies = new ArrayList<>();
+    private final ArrayList<Entity> heads = new ArrayList<>();
+    private final ArrayList<Entity> data = new ArrayList<>();
+    private Entity playerHead;
+
+    /** Prépare la vue d'une nouvelle partie. Le monde de jeu doit avoir été vidé. */
+    public void build(ArenaGame arena) {
+        bodyPool.reclaim();
+        playerHeadPool.reclaim();
+        headPool.reclaim();
+        dataPool.reclaim();
+        bodies.clear();
+        heads.clear();
+        data.clear();
+        playerHead = null;
+        camera.setBoard(arena.getCols(), arena.getRows());
+        render(arena);
+    }
+
+    /** Replace les entités du champ après un tick. Coûte O(cellules du champ + têtes + données). */
+    public void render(ArenaGame arena) {
+        SnakeBody player = arena.getBody(0);
+        if (arena.isAlive(0)) {
+            camera.follow((player.getHeadCol() + 0.5) * Constants.GRID_SCALE,
+                    (player.getHeadRow() + 0.5) * Constants.GRID_SCALE);
+        }
+        Viewport viewport = FXGL.getGameScene().getViewport();
+        viewport.setX(camera.getX());
+        viewport.setY(camera.getY());
+
+        int firstCol = camera.getFirstCol();
+        int lastCol = camera.getLastCol();
+        int firstRow = camera.getFirstRow();
+        int lastRow = camera.getLastRow();
+        OccupancyGrid grid = arena.getGrid();
+
+        int usedBodies = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (grid.isOccupied(col, row)) {
+                    usedBodies = place(bodies, bodyPool, usedBodies, col, row);
+                }
+            }
+        }
+        trim(bodies, bodyPool, usedBodies);
+
+        int usedHeads = 0;
+        for (int i = 1; i < arena.getSnakeCount(); i++) {
+            SnakeBody body = arena.getBody(i);
+            if (arena.isAlive(i) && inside(body.getHeadCol(), body.getHeadRow(), firstCol, lastCol, firstRow, lastRow)) {
+                usedHeads = place(heads, headPool, usedHeads, body.getHeadCol(), body.getHeadRow());
+            }
+        }
+        trim(heads, headPool, usedHeads);
+
+        if (arena.isAlive(0)) {
+            if (playerHead == null) {
+                playerHead = playerHeadPool.obtain(0, 0);
+            }
+            playerHead.setPosition(player.getHeadCol() * Constants.GRID_SCALE, player.getHeadRow() * Constants.GRID_SCALE);
+        } else if (playerHead != null) {
+            playerHeadPool.release(playerHead);
+            playerHead = null;
+        }
+
+        int usedData = 0;
+        int cols = arena.getCols();
+        for (int k = 0; k < arena.getDataCount(); k++) {
+            int cell = arena.getDataCell(k);
+            if (cell >= 0 && inside(cell % cols, cell / cols, firstCol, lastCol, firstRow, lastRow)) {
+                usedData = place(data, dataPool, usedData, cell % cols, cell / cols);
+            }
+        }
+        trim(data, dataPool, usedData);
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    private static boolean inside(int col, int row, int firstCol, int lastCol, int firstRow, int lastRow) {
+        return col >= firstCol && col <= lastCol && row >= firstRow && row <= lastRow;
+    }
+
+    private static int place(ArrayList<Entity> entities, EntityPool pool, int used, int col, int row) {
+        double x = col * Constants.GRID_SCALE;
+        double y = row * Constants.GRID_SCALE;
+        if (used < entities.size()) {
+            entities.get(used).setPosition(x, y);
+        } else {
+            entities.add(pool.obtain(x, y));
+        }
+        return used + 1;
+    }
+
+    private static void trim(ArrayList<Entity> entities, EntityPool pool, int used) {
+        while (entities.size() > used) {
+            pool.release(entities.remove(entities.size() - 1));
+        }
+    }
+
+    private static Entity createBodySegment() {
+        return FXGL.entityBuilder()
+                .type(EntityTypes.BODY)
+                .view(new Rectangle(Constants.GRID_SCALE, Constants.GRID_SCALE, Constants.SNAKE_BODY_COLOR))
+                .build();
+    }
+
+    private static Entity createHead(Color color) {
+        return FXGL.entityBuilder()
+                .type(EntityTypes.HEAD)
+                .zIndex(1)
+                .view(new Rectangle(Constants.GRID_SCALE, Constants.GRID_SCALE, color))
+                .build();
+    }
+
+    private static Entity createData() {
+        double imageOffset = (Constants.GRID_SCALE - Constants.DATA_IMAGE_SIZE) / 2.0;
+
+        var tex = AssetCache.texture("coins.png", Constants.DATA_IMAGE_SIZE, Constants.DATA_IMAGE_SIZE);
+        tex.setTranslateX(imageOffset);
+        tex.setTranslateY(imageOffset);
+
+        return FXGL.entityBuilder()
+                .type(EntityTypes.DATA)
+                .view(tex)
+                .build();
+    }
+}
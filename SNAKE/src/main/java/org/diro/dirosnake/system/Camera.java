@@ -0,0 +1,63 @@
+package org.diro.dirosnake.system;
+
+/**
+ * Caméra de la taille de la fenêtre qui suit un point du plateau sans jamais sortir de celui-ci. Elle donne
+ * aussi le rectangle de cellules visibles, seul endroit où la vue garde des entités.
+ */
+public class Camera {
+
+    private final double viewWidth;
+    private final double viewHeight;
+    private final int gridScale;
+    private int cols;
+    private int rows;
+    private double x = 0;
+    private double y = 0;
+
+    public Camera(double viewWidth, double viewHeight, int gridScale) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.gridScale = gridScale;
+    }
+
+    public void setBoard(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+    }
+
+    /** Centre la caméra sur le point (centerX, centerY), en pixels du plateau. */
+    public void follow(double centerX, double centerY) {
+        x = clamp(centerX - viewWidth / 2, cols * gridScale - viewWidth);
+        y = clamp(centerY - viewHeight / 2, rows * gridScale - viewHeight);
+    }
+
+    private static double clamp(double value, double max) {
+        // Un plateau plus petit que la fenêtre reste collé en haut à gauche, comme avant la caméra.
+        return Math.max(0, Math.min(value, Math.max(0, max)));
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public int getFirstCol() {
+        return (int) (x / gridScale);
+    }
+
+    public int getFirstRow() {
+        return (int) (y / gridScale);
+    }
+
+    /** Dernière colonne visible, même partiellement. */
+    public int getLastCol() {
+        return Math.min(cols - 1, (int) Math.ceil((x + viewWidth) / gridScale) - 1);
+    }
+
+    public int getLastRow() {
+        return Math.min(rows - 1, (int) Math.ceil((y + viewHeight) / gridScale) - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Réserve d'entités réutilisables. Les entités sont marquées "reusable" : lorsqu'elles quittent le monde
+ * de jeu, FXGL garde leur vue, leur boîte de collision et leurs composantes, et la réserve peut les
+ * rattacher telles quelles au lieu d'en construire de nouvelles.
+ */
+public class EntityPool {
+
+    private final Supplier<Entity> factory;
+    private final ArrayList<Entity> all = new ArrayList<>();
+    private final ArrayDeque<Entity> free = new ArrayDeque<>();
+
+    public EntityPool(Supplier<Entity> factory) {
+        this.factory = factory;
+    }
+
+    /** Rattache une entité libre au monde de jeu à la position (x, y), ou en construit une si aucune n'est libre. */
+    public Entity obtain(double x, double y) {
+        Entity entity = free.peekFirst();
+
+        // Une entité relâchée pendant la mise à jour du monde n'en est retirée qu'à la fin de celle-ci.
+        if (entity != null && !entity.isActive()) {
+            free.pollFirst();
+        } else {
+            entity = factory.get();
+            entity.setReusable(true);
+            all.add(entity);
+        }
+
+        entity.setPosition(x, y);
+        FXGL.getGameWorld().addEntity(entity);
+        return entity;
+    }
+
+    public void release(Entity entity) {
+        if (entity.isActive()) {
+            entity.removeFromWorld();
+        }
+        free.addLast(entity);
+    }
+
+    /** Rend toutes les entités à la réserve, par exemple après que le monde de jeu a été vidé. */
+    public void reclaim() {
+        free.clear();
+        for (Entity entity : all) {
+            if (entity.isActive()) {
+                entity.removeFromWorld();
+            }
+            free.addLast(entity);
+        }
+    }
+
+    public int getCreatedCount() {
+        return all.size();
+    }
+
+    public int getFreeCount() {
+        return free.size();
+    }
+}
@@ -0,0 +1,158 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.logging.Logger;
+import javafx.application.Platform;
+import javafx.scene.input.InputEvent;
+import org.diro.dirosnake.metrics.PacingMode;
+import org.diro.dirosnake.metrics.PacingStats;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadence adaptative. Quand un menu reste immobile (aucune animation, aucune entrée) plus de "idleDelay"
+ * secondes, la boucle de FXGL est suspendue et ne fait plus qu'une image tous les 1/"idleFps" de seconde :
+ * sans AnimationTimer actif, JavaFX n'envoie plus d'impulsions et ne redessine rien. Toute entrée sur la
+ * fenêtre ou tout départ d'animation ({@link #wake()}) rend aussitôt la pleine cadence. La partie elle-même
+ * tourne toujours à pleine cadence.
+ *
+ * Le tpf de FXGL est une moyenne sur deux secondes, faux juste après un changement de cadence : les images
+ * rendent plutôt leur durée mesurée.
+ */
+public class FramePacer {
+
+    // Une image plus longue (reprise après une suspension) compte pour cette durée.
+    private static final double MAX_FRAME_SECONDS = 0.25;
+
+    private final long idleDelayNanos;
+    private final long idlePeriodNanos;
+    private final PacingStats stats = new PacingStats();
+    private ScheduledExecutorService waker;
+    private ScheduledFuture<?> pendingResume;
+    private Runnable onFirstFrame;
+    private long lastFrame = -1;
+    private long lastActivity = System.nanoTime();
+    private boolean paused = false;
+    private boolean installed = false;
+
+    public FramePacer(double idleDelay, double idleFps) {
+        this.idleDelayNanos = (long) (idleDelay * 1e9);
+        this.idlePeriodNanos = (long) (1e9 / idleFps);
+    }
+
+    /** Image de jeu : toujours à pleine cadence. Retourne la durée de l'image, en secondes. */
+    public double gameFrame(double tpf) {
+        long now = System.nanoTime();
+        lastActivity = now;
+        setMode(PacingMode.ACTIVE);
+        return frame(now, tpf);
+    }
+
+    /**
+     * Image de menu ; "animating" si une animation du menu joue. Passé le délai d'inactivité, suspend la boucle
+     * jusqu'à l'image suivante. Retourne la durée de l'image, en secondes.
+     */
+    public double menuFrame(double tpf, boolean animating) {
+        install();
+        long now = System.nanoTime();
+        if (animating) {
+            lastActivity = now;
+        }
+        if (stats.getMode() == PacingMode.ACTIVE && now - lastActivity >= idleDelayNanos) {
+            setMode(PacingMode.IDLE);
+        }
+        double seconds = frame(now, tpf);
+        if (stats.getMode() == PacingMode.IDLE) {
+            suspend();
+        }
+        return seconds;
+    }
+
+    /** Entrée ou animation qui démarre : retour immédiat à la pleine cadence. */
+    public void wake() {
+        long now = System.nanoTime();
+        lastActivity = now;
+        if (stats.getMode() == PacingMode.IDLE) {
+            setMode(PacingMode.ACTIVE);
+            // La prochaine image se mesure depuis le réveil, pas depuis la dernière image au ralenti.
+            lastFrame = now;
+            if (pendingResume != null) {
+                pendingResume.cancel(false);
+                pendingResume = null;
+            }
+            resume();
+        }
+    }
+
+    /**
+     * "action" est lancée une seule fois, juste après la première image (menu ou partie) : elle passe par
+     * Platform.runLater depuis l'impulsion qui la dessine, et tourne donc une fois l'image transmise au rendu.
+     */
+    public void onFirstFrame(Runnable action) {
+        onFirstFrame = action;
+    }
+
+    public PacingStats getStats() {
+        return stats;
+    }
+
+    private double frame(long now, double tpf) {
+        if (onFirstFrame != null) {
+            Platform.runLater(onFirstFrame);
+            onFirstFrame = null;
+        }
+        stats.frame();
+        double seconds = lastFrame < 0 ? tpf : Math.min((now - lastFrame) / 1e9, MAX_FRAME_SECONDS);
+        lastFrame = now;
+        return seconds;
+    }
+
+    private void setMode(PacingMode mode) {
+        if (stats.getMode() != mode) {
+            stats.switchTo(mode);
+            Logger.get(FramePacer.class).info("Frame pacing " + mode.name().toLowerCase(Locale.ROOT) + ": "
+                    + stats.summary());
+        }
+    }
+
+    /** Suspend la boucle et programme l'image suivante ; le fil de réveil ne touche à rien hors du fil JavaFX. */
+    private void suspend() {
+        FXGL.getGameController().pauseEngine();
+        paused = true;
+        pendingResume = waker().schedule(() -> Platform.runLater(() -> {
+            if (stats.getMode() == PacingMode.IDLE) {
+                resume();
+            }
+        }), idlePeriodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void resume() {
+        if (paused) {
+            paused = false;
+            FXGL.getGameController().resumeEngine();
+        }
+    }
+
+    private ScheduledExecutorService waker() {
+        if (waker == null) {
+            waker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "frame-pacer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return waker;
+    }
+
+    // Le filtre passe avant les actions de FXGL et les boutons des menus : la boucle tourne déjà quand ils répondent.
+    private void install() {
+        if (!installed) {
+            installed = true;
+            FXGL.getPrimaryStage().getScene().addEventFilter(InputEvent.ANY, event -> wake());
+        }
+    }
+}
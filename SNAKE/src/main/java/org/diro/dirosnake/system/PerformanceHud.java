@@ -0,0 +1,58 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.dsl.FXGL;
+import javafx.geometry.Insets;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import org.diro.dirosnake.metrics.MetricsSample;
+
+/**
+ * Affichage des compteurs de performance par-dessus le jeu (touche F3). Le texte n'est refait qu'à chaque
+ * relevé, jamais à chaque image, et seulement s'il est visible.
+ */
+public class PerformanceHud {
+
+    private final Text text = new Text();
+    private final StackPane panel = new StackPane(text);
+    private boolean visible = false;
+
+    public PerformanceHud() {
+        text.setFont(Font.font("Monospaced", 12));
+        text.setFill(Color.LIGHTGREEN);
+        panel.setPadding(new Insets(6));
+        panel.setBackground(new Background(new BackgroundFill(Color.color(0, 0, 0, 0.6), new CornerRadii(4), null)));
+        panel.setTranslateX(8);
+        panel.setTranslateY(8);
+        panel.setMouseTransparent(true);
+        panel.setVisible(false);
+    }
+
+    /** Ajoute le panneau à la scène de jeu (à refaire à chaque nouvelle partie, FXGL vide l'interface). */
+    public void attach() {
+        FXGL.getGameScene().addUINode(panel);
+    }
+
+    public void update(MetricsSample sample) {
+        if (visible) {
+            text.setText(sample.toDisplayString());
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        panel.setVisible(visible);
+    }
+
+    public void toggle() {
+        setVisible(!visible);
+    }
+}
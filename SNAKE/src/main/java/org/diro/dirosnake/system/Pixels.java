@@ -0,0 +1,18 @@
+package org.diro.dirosnake.system;
+
+import javafx.scene.paint.Color;
+
+/** Conversions de couleurs pour les images peintes pixel par pixel (damier, atlas). */
+final class Pixels {
+
+    private Pixels() {
+    }
+
+    /** Couleur JavaFX en entier ARGB, le format de {@link javafx.scene.image.PixelFormat#getIntArgbInstance()}. */
+    static int toArgb(Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24)
+                | ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8)
+                | (int) Math.round(color.getBlue() * 255);
+    }
+}
@@ -0,0 +1,213 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import org.diro.dirosnake.EntityTypes;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.util.Arrays;
+
+/**
+ * Corps du S.N.A.K.E. et données peints sur un seul {@link Canvas} à partir d'un {@link SpriteAtlas} : une
+ * seule entité, quels que soient la longueur du corps et le champ de la caméra. La tête reste une entité,
+ * interpolée à chaque image.
+ *
+ * Le canevas couvre le champ de la caméra plus une marge ; il n'est recentré, et repeint en entier, que
+ * lorsque le champ en sort. Entre deux recentrages, chaque mise à jour compare le plateau à ce qui est déjà
+ * peint (un octet par cellule) et ne repeint que les cellules qui ont changé : en général l'ancienne tête,
+ * l'ancienne queue et la donnée. Un sprite qui déborde de sa cellule (la donnée) est repeint en entier, avec
+ * les cellules qu'il recouvre, dès que l'une d'elles change.
+ */
+public class SnakeCanvas {
+
+    // Cellules peintes de chaque côté du champ de la caméra.
+    private static final int MARGIN = 8;
+    private static final byte EMPTY = 0;
+    private static final byte BODY = 1;
+    private static final byte DATA = 2;
+
+    private final SpriteAtlas atlas;
+    private final int gridScale;
+    private final int reach;
+    private final int maxCols;
+    private final int maxRows;
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+
+    // Contenu peint de chaque cellule du canevas (row * cols + col), et cellules à repeindre.
+    private final byte[] painted;
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount = 0;
+    private int[] dataCells = new int[4];
+    private boolean[] dataRedraw = new boolean[4];
+    private int dataCount = 0;
+
+    private Entity entity;
+    private int boardCols;
+    private int boardRows;
+    private int originCol;
+    private int originRow;
+    private int cols;
+    private int rows;
+    private boolean placed = false;
+    private int drawnCells = 0;
+
+    public SnakeCanvas(SpriteAtlas atlas, double viewWidth, double viewHeight, int gridScale) {
+        this.atlas = atlas;
+        this.gridScale = gridScale;
+        this.reach = atlas.getOverflowCells();
+        this.maxCols = (int) Math.ceil(viewWidth / gridScale) + 1 + 2 * MARGIN;
+        this.maxRows = (int) Math.ceil(viewHeight / gridScale) + 1 + 2 * MARGIN;
+        this.canvas = new Canvas(maxCols * gridScale, maxRows * gridScale);
+        this.graphics = canvas.getGraphicsContext2D();
+        this.painted = new byte[maxCols * maxRows];
+        this.dirty = new boolean[maxCols * maxRows];
+        this.dirtyCells = new int[maxCols * maxRows];
+    }
+
+    /** Attache le canevas au monde de jeu pour une nouvelle partie ; la prochaine mise à jour repeint tout. */
+    public void build(int boardCols, int boardRows) {
+        this.boardCols = boardCols;
+        this.boardRows = boardRows;
+        this.cols = Math.min(boardCols, maxCols);
+        this.rows = Math.min(boardRows, maxRows);
+        placed = false;
+        entity = FXGL.entityBuilder()
+                .type(EntityTypes.BODY)
+                .view(canvas)
+                .buildAndAttach();
+    }
+
+    /** Repeint ce qui a changé depuis la dernière mise à jour, ou tout si le champ a quitté le canevas. */
+    public void update(SnakeGame game, Camera camera) {
+        if (!placed || camera.getFirstCol() < originCol || camera.getLastCol() >= originCol + cols
+                || camera.getFirstRow() < originRow || camera.getLastRow() >= originRow + rows) {
+            recenter(camera);
+        }
+
+        OccupancyGrid grid = game.getGrid();
+        SnakeBody body = game.getBody();
+        int headCell = body.getHeadRow() * boardCols + body.getHeadCol();
+        int dataCell = game.getDataCell();
+
+        dataCount = 0;
+        for (int row = 0; row < rows; row++) {
+            int cell = (originRow + row) * boardCols + originCol;
+            for (int col = 0; col < cols; col++, cell++) {
+                byte wanted = cell == headCell ? EMPTY
+                        : grid.isCellOccupied(cell) ? BODY
+                        : cell == dataCell ? DATA : EMPTY;
+                int index = row * cols + col;
+                byte before = painted[index];
+                if (before != wanted) {
+                    painted[index] = wanted;
+                    if (before == DATA) {
+                        // Efface aussi le débordement de l'ancienne donnée.
+                        markAround(row, col);
+                    } else {
+                        markDirty(index);
+                    }
+                }
+                if (wanted == DATA) {
+                    addData(index);
+                }
+            }
+        }
+
+        // Une donnée touchée par une cellule à repeindre est repeinte avec tout ce qu'elle recouvre.
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int k = 0; k < dataCount; k++) {
+                int index = dataCells[k];
+                if (!dataRedraw[k] && touchesDirty(index / cols, index % cols)) {
+                    dataRedraw[k] = true;
+                    markAround(index / cols, index % cols);
+                    changed = true;
+                }
+            }
+        }
+
+        paint();
+    }
+
+    /** Cellules repeintes à la dernière mise à jour. */
+    public int getDrawnCellCount() {
+        return drawnCells;
+    }
+
+    private void recenter(Camera camera) {
+        originCol = clamp(camera.getFirstCol() - MARGIN, boardCols - cols);
+        originRow = clamp(camera.getFirstRow() - MARGIN, boardRows - rows);
+        placed = true;
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        Arrays.fill(painted, EMPTY);
+        entity.setPosition(originCol * gridScale, originRow * gridScale);
+    }
+
+    private void paint() {
+        drawnCells = dirtyCount;
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyCells[i];
+            dirty[index] = false;
+            double x = (index % cols) * gridScale;
+            double y = (index / cols) * gridScale;
+            graphics.clearRect(x, y, gridScale, gridScale);
+            if (painted[index] == BODY) {
+                atlas.draw(graphics, SpriteAtlas.BODY, x, y);
+            }
+        }
+        dirtyCount = 0;
+
+        for (int k = 0; k < dataCount; k++) {
+            if (dataRedraw[k]) {
+                dataRedraw[k] = false;
+                int index = dataCells[k];
+                atlas.draw(graphics, SpriteAtlas.DATA, (index % cols) * gridScale, (index / cols) * gridScale);
+            }
+        }
+    }
+
+    private void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCells[dirtyCount++] = index;
+        }
+    }
+
+    private void markAround(int row, int col) {
+        for (int r = Math.max(0, row - reach); r <= Math.min(rows - 1, row + reach); r++) {
+            for (int c = Math.max(0, col - reach); c <= Math.min(cols - 1, col + reach); c++) {
+                markDirty(r * cols + c);
+            }
+        }
+    }
+
+    private boolean touchesDirty(int row, int col) {
+        for (int r = Math.max(0, row - reach); r <= Math.min(rows - 1, row + reach); r++) {
+            for (int c = Math.max(0, col - reach); c <= Math.min(cols - 1, col + reach); c++) {
+                if (dirty[r * cols + c]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addData(int index) {
+        if (dataCount == dataCells.length) {
+            dataCells = Arrays.copyOf(dataCells, dataCount * 2);
+            dataRedraw = Arrays.copyOf(dataRedraw, dataCount * 2);
+        }
+        dataCells[dataCount++] = index;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, Math.max(0, max)));
+    }
+}
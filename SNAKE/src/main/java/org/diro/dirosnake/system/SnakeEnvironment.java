@@ -1,35 +1,169 @@
 package org.diro.dirosnake.system;
 
 import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.shape.Rectangle;
+import org.diro.dirosnake.BackgroundMode;
 import org.diro.dirosnake.Constants;
 import org.diro.dirosnake.EntityTypes;
 
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /** [NOTE DU D.I.R.O.]
  * Cette classe représente se qui sera affiché derrière le S.N.A.K.E.
+ *
+ * Le damier ne couvre que le champ de la caméra plus deux cellules, quelle que soit la taille du plateau.
+ * Comme son motif se répète toutes les deux cellules, il suffit de le recaler par pas de deux cellules
+ * derrière la caméra pour qu'il semble infini.
  */
 public class SnakeEnvironment {
 
+    private final BackgroundMode mode;
+    private final int width;
+    private final int height;
+    private final int gridScale;
+
+    // Le damier n'est peint qu'une seule fois (d'avance, voir paintBackground) puis réutilisé à chaque partie.
+    private CompletableFuture<WritableImage> background;
+    private final ArrayList<Entity> entities = new ArrayList<>();
+    private double originX = 0;
+    private double originY = 0;
+
+    public SnakeEnvironment() {
+        this(Constants.BACKGROUND_MODE, Constants.WIDTH, Constants.HEIGHT, Constants.GRID_SCALE);
+    }
+
+    /** Fond d'un plateau qui tient dans la fenêtre (width x height pixels). */
+    public SnakeEnvironment(BackgroundMode mode, int width, int height, int gridScale) {
+        this(mode, width, height, gridScale, width / gridScale, height / gridScale);
+    }
+
+    /** Fond d'un plateau de cols x rows cellules vu à travers une fenêtre de width x height pixels. */
+    public SnakeEnvironment(BackgroundMode mode, int width, int height, int gridScale, int cols, int rows) {
+        this.mode = mode;
+        this.gridScale = gridScale;
+        this.width = Math.min(cols * gridScale, width + 2 * gridScale);
+        this.height = Math.min(rows * gridScale, height + 2 * gridScale);
+    }
+
+    /**
+     * Peint le damier d'avance sur "executor" : l'image n'entre dans la scène qu'à la création du fond, on
+     * peut donc la peindre depuis n'importe quel fil. Sans effet si le fond n'est pas un damier.
+     */
+    public void paintBackground(Executor executor) {
+        if (mode == BackgroundMode.RASTER && background == null) {
+            background = CompletableFuture.supplyAsync(this::paintCheckerboard, executor);
+        }
+    }
+
     public void createBackground() {
+        createBackground(FXGL.getGameWorld());
+    }
+
+    public void createBackground(GameWorld world) {
         //TODO: Coder l'environnement ici.
-        int cols = Constants.WIDTH / Constants.GRID_SCALE;
-        int rows = Constants.HEIGHT / Constants.GRID_SCALE;
+        entities.clear();
+        originX = 0;
+        originY = 0;
+        switch (mode) {
+            case TILES:
+                createTiles(world);
+                break;
+            case RASTER:
+                createRaster(world);
+                break;
+        }
+    }
+
+    private void createTiles(GameWorld world) {
+        int cols = width / gridScale;
+        int rows = height / gridScale;
 
         for (int y = 0; y < rows; y++) {
             for (int x = 0; x < cols; x++) {
                 boolean even = (x + y) % 2 == 0;
                 Rectangle tile = new Rectangle(
-                        Constants.GRID_SCALE,
-                        Constants.GRID_SCALE,
+                        gridScale,
+                        gridScale,
                         even ? Constants.TILE_1 : Constants.TILE_2
                 );
 
-                FXGL.entityBuilder()
+                Entity entity = FXGL.entityBuilder()
                         .type(EntityTypes.NONE)
-                        .at(x * Constants.GRID_SCALE, y * Constants.GRID_SCALE)
+                        .at(x * gridScale, y * gridScale)
                         .view(tile)
-                        .buildAndAttach();
+                        .build();
+                entities.add(entity);
+                world.addEntity(entity);
             }
         }
     }
-}
\ No newline at end of file
+
+    private void createRaster(GameWorld world) {
+        paintBackground(Runnable::run);
+
+        Entity entity = FXGL.entityBuilder()
+                .type(EntityTypes.NONE)
+                .at(0, 0)
+                .view(new ImageView(background.join()))
+                .build();
+        entities.add(entity);
+        world.addEntity(entity);
+    }
+
+    /** Recale le fond derrière la caméra. Ne touche aux entités que lorsque la caméra franchit deux cellules. */
+    public void follow(Camera camera) {
+        double period = 2.0 * gridScale;
+        double x = Math.floor(camera.getX() / period) * period;
+        double y = Math.floor(camera.getY() / period) * period;
+        if (x == originX && y == originY) {
+            return;
+        }
+
+        double dx = x - originX;
+        double dy = y - originY;
+        for (Entity entity : entities) {
+            entity.translate(dx, dy);
+        }
+        originX = x;
+        originY = y;
+    }
+
+    public int getEntityCount() {
+        return entities.size();
+    }
+
+    /**
+     * Peint le damier ligne par ligne : seules deux lignes de pixels existent (rangées paires et impaires),
+     * le coût ne dépend donc que de la résolution et pas du nombre de cellules.
+     */
+    private WritableImage paintCheckerboard() {
+        int tile1 = Pixels.toArgb(Constants.TILE_1);
+        int tile2 = Pixels.toArgb(Constants.TILE_2);
+
+        int[] evenLine = new int[width];
+        int[] oddLine = new int[width];
+        for (int x = 0; x < width; x++) {
+            boolean even = (x / gridScale) % 2 == 0;
+            evenLine[x] = even ? tile1 : tile2;
+            oddLine[x] = even ? tile2 : tile1;
+        }
+
+        WritableImage image = new WritableImage(width, height);
+        PixelWriter writer = image.getPixelWriter();
+        PixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+        for (int y = 0; y < height; y++) {
+            int[] line = (y / gridScale) % 2 == 0 ? evenLine : oddLine;
+            writer.setPixels(0, y, width, 1, format, line, 0, width);
+        }
+        return image;
+    }
+}
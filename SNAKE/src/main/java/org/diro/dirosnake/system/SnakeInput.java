@@ -3,19 +3,22 @@ package org.diro.dirosnake.system;
 import com.almasb.fxgl.input.Input;
 import com.almasb.fxgl.input.UserAction;
 import javafx.scene.input.KeyCode;
+import org.diro.dirosnake.ControlMode;
 import org.diro.dirosnake.Directions;
-
-import java.util.ArrayList;
+import org.diro.dirosnake.core.InputQueue;
 
 public class SnakeInput {
 
     // Member variables
     private final Input inputManager;
-    private final ArrayList<SnakeCell> snake;
+    private final InputQueue queue;
+    private final PerformanceHud hud;
+    private ControlMode controlMode = ControlMode.KEYBOARD;
 
-    public SnakeInput(ArrayList<SnakeCell> snake, Input inputManager) {
+    public SnakeInput(InputQueue queue, Input inputManager, PerformanceHud hud) {
         this.inputManager = inputManager;
-        this.snake = snake;
+        this.queue = queue;
+        this.hud = hud;
     }
 
     public void init() {
@@ -26,77 +29,91 @@ public class SnakeInput {
         //TODO: Ajouter la capacité de faire bouger le S.N.A.K.E. avec les touches du clavier ici.
         inputManager.addAction(new UserAction("UpArrow") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.UP);
             }
         }, KeyCode.UP);
 
         inputManager.addAction(new UserAction("UpW") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.UP);
             }
         }, KeyCode.W);
 
         inputManager.addAction(new UserAction("DownArrow") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.DOWN);
             }
         }, KeyCode.DOWN);
 
         inputManager.addAction(new UserAction("DownS") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.DOWN);
             }
         }, KeyCode.S);
 
         inputManager.addAction(new UserAction("LeftArrow") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.LEFT);
             }
         }, KeyCode.LEFT);
 
         inputManager.addAction(new UserAction("LeftA") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.LEFT);
             }
         }, KeyCode.A);
 
         inputManager.addAction(new UserAction("RightArrow") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.RIGHT);
             }
         }, KeyCode.RIGHT);
 
         inputManager.addAction(new UserAction("RightD") {
             @Override
-            protected void onAction() {
+            protected void onActionBegin() {
                 setDirection(Directions.RIGHT);
             }
         }, KeyCode.D);
+
+        inputManager.addAction(new UserAction("Autopilot") {
+            @Override
+            protected void onActionBegin() {
+                ControlMode[] modes = ControlMode.values();
+                setControlMode(modes[(controlMode.ordinal() + 1) % modes.length]);
+            }
+        }, KeyCode.P);
+
+        inputManager.addAction(new UserAction("PerformanceHud") {
+            @Override
+            protected void onActionBegin() {
+                hud.toggle();
+            }
+        }, KeyCode.F3);
     }
 
     private void setDirection(Directions newDir) {
-        if (snake.isEmpty()) {
-            return;
+        // Une seule direction par appui : la file garde l'ordre des virages et refuse les demi-tours.
+        if (controlMode == ControlMode.KEYBOARD) {
+            queue.offer(newDir);
         }
+    }
 
-        Directions current = snake.get(0).direction;
-
-        boolean isOpposite =
-                (current == Directions.UP && newDir == Directions.DOWN) ||
-                        (current == Directions.DOWN && newDir == Directions.UP) ||
-                        (current == Directions.LEFT && newDir == Directions.RIGHT) ||
-                        (current == Directions.RIGHT && newDir == Directions.LEFT);
+    /** Qui conduit le S.N.A.K.E. : le clavier ou un des pilotes automatiques (la touche P passe au suivant). */
+    public ControlMode getControlMode() {
+        return controlMode;
+    }
 
-        if (!isOpposite) {
-            snake.get(0).direction = newDir;
-        }
+    public void setControlMode(ControlMode controlMode) {
+        this.controlMode = controlMode;
+        queue.clear();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+package org.diro.dirosnake.system;
+
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import javafx.scene.shape.Rectangle;
+import org.diro.dirosnake.AssetCache;
+import org.diro.dirosnake.BodyRenderMode;
+import org.diro.dirosnake.Constants;
+import org.diro.dirosnake.EntityTypes;
+import org.diro.dirosnake.core.OccupancyGrid;
+import org.diro.dirosnake.core.SnakeBody;
+import org.diro.dirosnake.core.SnakeGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Vue FXGL d'une partie {@link SnakeGame}. Les règles vivent dans le coeur de simulation; cette classe ne
+ * fait que placer les entités. Une caméra de la taille de la fenêtre suit la tête, et seuls les segments
+ * dans le champ de la caméra ont une entité : le coût d'une image dépend de la fenêtre, pas du plateau
+ * ni de la longueur du S.N.A.K.E.
+ *
+ * En mode {@link BodyRenderMode#CANVAS}, le corps et la donnée sont plutôt peints sur un seul canevas
+ * ({@link SnakeCanvas}), qui ne repeint que les cellules qui changent ; seule la tête reste une entité.
+ */
+public class SnakeView {
+
+    // Les segments et les données sont recyclés d'une image et d'une partie à l'autre.
+    private final EntityPool bodyPool = new EntityPool(SnakeView::createBodySegment);
+    private final EntityPool dataPool = new EntityPool(SnakeView::createData);
+    private final Camera camera = new Camera(Constants.WIDTH, Constants.HEIGHT, Constants.GRID_SCALE);
+    private final BodyRenderMode mode;
+    // Créé à la première partie : l'atlas a besoin des images préchargées.
+    private SnakeCanvas canvas;
+
+    // Entité de chaque cellule du champ de la caméra, indexée par (row - firstRow) * viewCols + (col - firstCol).
+    private Entity[] cellSegments = new Entity[0];
+    private final ArrayList<Entity> spareSegments = new ArrayList<>();
+    private int viewCols;
+    private int segmentCount;
+    // Queue du corps au dernier tick : la seule cellule que le pas suivant peut libérer.
+    private int tailCol;
+    private int tailRow;
+    private Entity head;
+    private double headX;
+    private double headY;
+    private double previousHeadX;
+    private double previousHeadY;
+    private Entity data;
+    private int dataCell = -1;
+
+    // Champ de la caméra lors du dernier placement des segments.
+    private int firstCol;
+    private int lastCol;
+    private int firstRow;
+    private int lastRow;
+    private boolean dirty;
+
+    public SnakeView() {
+        this(Constants.BODY_RENDER_MODE);
+    }
+
+    public SnakeView(BodyRenderMode mode) {
+        this.mode = mode;
+    }
+
+    /** Construit les entités d'une nouvelle partie. Le monde de jeu doit avoir été vidé. */
+    public void build(SnakeGame game) {
+        bodyPool.reclaim();
+        dataPool.reclaim();
+        Arrays.fill(cellSegments, null);
+        segmentCount = 0;
+        data = null;
+        dataCell = -1;
+        camera.setBoard(game.getCols(), game.getRows());
+
+        SnakeBody body = game.getBody();
+        headX = previousHeadX = body.getHeadCol() * Constants.GRID_SCALE;
+        headY = previousHeadY = body.getHeadRow() * Constants.GRID_SCALE;
+        rememberTail(body);
+        head = FXGL.entityBuilder()
+                .type(EntityTypes.HEAD)
+                .zIndex(1)
+                .at(headX, headY)
+                .view(new Rectangle(Constants.GRID_SCALE, Constants.GRID_SCALE, Constants.SNAKE_HEAD_COLOR))
+                .buildAndAttach();
+
+        if (mode == BodyRenderMode.CANVAS) {
+            if (canvas == null) {
+                canvas = new SnakeCanvas(SpriteAtlas.create(), Constants.WIDTH, Constants.HEIGHT, Constants.GRID_SCALE);
+            }
+            canvas.build(game.getCols(), game.getRows());
+        }
+        syncData(game);
+        dirty = true;
+        render(game, 1.0);
+    }
+
+    /**
+     * Met la vue à jour après un tick de la simulation. En mode entités, un pas ne touche que trois cellules :
+     * l'ancienne tête (devenue segment), la nouvelle tête et l'ancienne queue ; le champ entier n'est reparcouru
+     * que lorsque la caméra défile.
+     */
+    public void sync(SnakeGame game) {
+        previousHeadX = headX;
+        previousHeadY = headY;
+
+        if (game.hasMoved()) {
+            SnakeBody body = game.getBody();
+            int previousHeadCol = (int) (headX / Constants.GRID_SCALE);
+            int previousHeadRow = (int) (headY / Constants.GRID_SCALE);
+            headX = body.getHeadCol() * Constants.GRID_SCALE;
+            headY = body.getHeadRow() * Constants.GRID_SCALE;
+            if (mode == BodyRenderMode.CANVAS) {
+                dirty = true;
+            } else {
+                refreshCell(game, previousHeadCol, previousHeadRow);
+                refreshCell(game, tailCol, tailRow);
+                refreshCell(game, body.getHeadCol(), body.getHeadRow());
+            }
+            rememberTail(body);
+        }
+
+        syncData(game);
+    }
+
+    /**
+     * Dessine une image : place la tête entre sa cellule précédente et sa cellule actuelle (alpha entre 0 et 1),
+     * centre la caméra sur elle, puis replace les segments (ou repeint le canevas) si le corps ou le champ de la
+     * caméra a changé.
+     */
+    public void render(SnakeGame game, double alpha) {
+        double x = previousHeadX + (headX - previousHeadX) * alpha;
+        double y = previousHeadY + (headY - previousHeadY) * alpha;
+        head.setPosition(x, y);
+
+        camera.follow(x + Constants.GRID_SCALE / 2.0, y + Constants.GRID_SCALE / 2.0);
+        Viewport viewport = FXGL.getGameScene().getViewport();
+        viewport.setX(camera.getX());
+        viewport.setY(camera.getY());
+
+        if (dirty || camera.getFirstCol() != firstCol || camera.getLastCol() != lastCol
+                || camera.getFirstRow() != firstRow || camera.getLastRow() != lastRow) {
+            firstCol = camera.getFirstCol();
+            lastCol = camera.getLastCol();
+            firstRow = camera.getFirstRow();
+            lastRow = camera.getLastRow();
+            dirty = false;
+            if (mode == BodyRenderMode.CANVAS) {
+                canvas.update(game, camera);
+            } else {
+                placeVisibleSegments(game);
+            }
+        }
+    }
+
+    /**
+     * Une entité par cellule occupée du champ de la caméra (sauf la tête). Parcourt tout le champ : n'est appelé
+     * qu'à la construction et quand la caméra défile. Les entités déjà placées sont déplacées avant d'en prendre
+     * à la réserve.
+     */
+    private void placeVisibleSegments(SnakeGame game) {
+        for (int i = 0; i < cellSegments.length; i++) {
+            if (cellSegments[i] != null) {
+                spareSegments.add(cellSegments[i]);
+                cellSegments[i] = null;
+            }
+        }
+        viewCols = lastCol - firstCol + 1;
+        int cells = viewCols * (lastRow - firstRow + 1);
+        if (cellSegments.length < cells) {
+            cellSegments = new Entity[cells];
+        }
+
+        OccupancyGrid grid = game.getGrid();
+        SnakeBody body = game.getBody();
+        int headCol = body.getHeadCol();
+        int headRow = body.getHeadRow();
+
+        segmentCount = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (!grid.isOccupied(col, row) || (col == headCol && row == headRow)) {
+                    continue;
+                }
+
+                double x = col * Constants.GRID_SCALE;
+                double y = row * Constants.GRID_SCALE;
+                Entity segment;
+                if (spareSegments.isEmpty()) {
+                    segment = bodyPool.obtain(x, y);
+                } else {
+                    segment = spareSegments.remove(spareSegments.size() - 1);
+                    segment.setPosition(x, y);
+                }
+                cellSegments[(row - firstRow) * viewCols + (col - firstCol)] = segment;
+                segmentCount++;
+            }
+        }
+
+        for (Entity segment : spareSegments) {
+            bodyPool.release(segment);
+        }
+        spareSegments.clear();
+    }
+
+    /** Accorde l'entité d'une seule cellule avec la grille : un segment si elle est occupée et n'est pas la tête. */
+    private void refreshCell(SnakeGame game, int col, int row) {
+        if (col < firstCol || col > lastCol || row < firstRow || row > lastRow) {
+            return;
+        }
+
+        SnakeBody body = game.getBody();
+        boolean wanted = game.getGrid().isOccupied(col, row)
+                && (col != body.getHeadCol() || row != body.getHeadRow());
+        int index = (row - firstRow) * viewCols + (col - firstCol);
+        Entity segment = cellSegments[index];
+        if (wanted && segment == null) {
+            cellSegments[index] = bodyPool.obtain(col * Constants.GRID_SCALE, row * Constants.GRID_SCALE);
+            segmentCount++;
+        } else if (!wanted && segment != null) {
+            bodyPool.release(segment);
+            cellSegments[index] = null;
+            segmentCount--;
+        }
+    }
+
+    private void rememberTail(SnakeBody body) {
+        tailCol = body.getCol(body.size() - 1);
+        tailRow = body.getRow(body.size() - 1);
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /** Nombre d'entités de segments en vie, borné par le nombre de cellules dans le champ (0 en mode canevas). */
+    public int getVisibleSegmentCount() {
+        return segmentCount;
+    }
+
+    /** Cellules repeintes à la dernière mise à jour du canevas (0 en mode entités). */
+    public int getDrawnCellCount() {
+        return canvas != null ? canvas.getDrawnCellCount() : 0;
+    }
+
+    private void syncData(SnakeGame game) {
+        if (game.getDataCell() == dataCell) {
+            return;
+        }
+
+        dataCell = game.getDataCell();
+        if (mode == BodyRenderMode.CANVAS) {
+            // La donnée est peinte sur le canevas avec le corps.
+            dirty = true;
+            return;
+        }
+        if (dataCell < 0) {
+            if (data != null) {
+                dataPool.release(data);
+                data = null;
+            }
+            return;
+        }
+
+        double x = game.getDataCol() * Constants.GRID_SCALE;
+        double y = game.getDataRow() * Constants.GRID_SCALE;
+        if (data == null) {
+            data = dataPool.obtain(x, y);
+        } else {
+            data.setPosition(x, y);
+        }
+    }
+
+    private static Entity createBodySegment() {
+        return FXGL.entityBuilder()
+                .type(EntityTypes.BODY)
+                .view(new Rectangle(Constants.GRID_SCALE, Constants.GRID_SCALE, Constants.SNAKE_BODY_COLOR))
+                .build();
+    }
+
+    private static Entity createData() {
+        double imageOffset = (Constants.GRID_SCALE - Constants.DATA_IMAGE_SIZE) / 2.0;
+
+        var tex = AssetCache.texture("coins.png", Constants.DATA_IMAGE_SIZE, Constants.DATA_IMAGE_SIZE);
+        tex.setTranslateX(imageOffset);
+        tex.setTranslateY(imageOffset);
+
+        return FXGL.entityBuilder()
+                .type(EntityTypes.DATA)
+                .view(tex)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package org.diro.dirosnake.system;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.diro.dirosnake.AssetCache;
+import org.diro.dirosnake.Constants;
+
+/**
+ * Sprites du plateau peints une seule fois dans une même image, une case carrée par sprite. Un canevas y
+ * prend ses sprites par drawImage : aucun noeud ni aucune image par cellule. Une case est assez grande pour
+ * le plus grand sprite ; les plus petits y sont centrés, et chaque sprite est dessiné centré sur sa cellule.
+ */
+public class SpriteAtlas {
+
+    public static final int BODY = 0;
+    public static final int DATA = 1;
+    private static final int SPRITES = 2;
+
+    private final WritableImage image;
+    private final int gridScale;
+    private final int size;
+
+    public SpriteAtlas(int gridScale, Color body, Image data) {
+        this.gridScale = gridScale;
+        this.size = Math.max(gridScale, (int) Math.max(data.getWidth(), data.getHeight()));
+        this.image = new WritableImage(size * SPRITES, size);
+
+        fill(BODY, gridScale, Pixels.toArgb(body));
+        copy(DATA, data);
+    }
+
+    /** Atlas du jeu : corps de la couleur du S.N.A.K.E., donnée tirée de coins.png (voir {@link AssetCache}). */
+    public static SpriteAtlas create() {
+        return new SpriteAtlas(Constants.GRID_SCALE, Constants.SNAKE_BODY_COLOR,
+                AssetCache.image("coins.png", Constants.DATA_IMAGE_SIZE, Constants.DATA_IMAGE_SIZE));
+    }
+
+    /** Dessine "sprite" centré sur la cellule dont le coin haut gauche est (x, y). */
+    public void draw(GraphicsContext graphics, int sprite, double x, double y) {
+        double offset = (gridScale - size) / 2.0;
+        graphics.drawImage(image, sprite * size, 0, size, size, x + offset, y + offset, size, size);
+    }
+
+    /** Débordement d'un sprite hors de sa cellule, de chaque côté, en cellules (0 si tout tient dans la cellule). */
+    public int getOverflowCells() {
+        return (int) Math.ceil((size - gridScale) / 2.0 / gridScale);
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    private void fill(int sprite, int width, int argb) {
+        PixelWriter writer = image.getPixelWriter();
+        int offset = (size - width) / 2;
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                writer.setArgb(sprite * size + offset + x, offset + y, argb);
+            }
+        }
+    }
+
+    private void copy(int sprite, Image source) {
+        PixelReader reader = source.getPixelReader();
+        if (reader == null) {
+            return;
+        }
+        int width = (int) source.getWidth();
+        int height = (int) source.getHeight();
+        image.getPixelWriter().setPixels(sprite * size + (size - width) / 2, (size - height) / 2,
+                width, height, reader, 0, 0);
+    }
+}
@@ -0,0 +1,50 @@
+package org.diro.dirosnake.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedTimestepTest {
+
+    // Puissance de deux : les sommes de pas restent exactes.
+    private static final double STEP = 0.125;
+
+    @Test
+    void accumulatesPartialFrames() {
+        FixedTimestep timestep = new FixedTimestep(STEP, 5);
+
+        assertEquals(0, timestep.advance(0.0625));
+        assertEquals(0.5, timestep.alpha());
+        assertEquals(1, timestep.advance(0.0625));
+        assertEquals(0.0, timestep.alpha());
+        assertEquals(2, timestep.advance(0.3125));
+        assertEquals(0.5, timestep.alpha());
+        assertEquals(0, timestep.getDroppedSteps());
+    }
+
+    @Test
+    void catchUpIsCappedAndTheRestIsDropped() {
+        FixedTimestep timestep = new FixedTimestep(STEP, 3);
+
+        // Pause de dix pas : trois sont rattrapés, le retard restant est abandonné.
+        assertEquals(3, timestep.advance(10 * STEP + 0.0625));
+        assertEquals(7, timestep.getDroppedSteps());
+        assertEquals(0.0, timestep.alpha());
+
+        // Le rythme normal reprend tout de suite, sans accélérer.
+        assertEquals(1, timestep.advance(STEP));
+        assertEquals(3, timestep.advance(3 * STEP));
+        assertEquals(7, timestep.getDroppedSteps());
+    }
+
+    @Test
+    void negativeFramesAndResetDoNotProduceTicks() {
+        FixedTimestep timestep = new FixedTimestep(STEP, 3);
+
+        assertEquals(0, timestep.advance(-1.0));
+        assertEquals(0, timestep.advance(0.0625));
+        timestep.reset();
+        assertEquals(0.0, timestep.alpha());
+        assertEquals(0, timestep.advance(0.0625));
+    }
+}
@@ -0,0 +1,68 @@
+package org.diro.dirosnake.core;
+
+import org.diro.dirosnake.Directions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputQueueTest {
+
+    @Test
+    void appliesOneDirectionPerTickInOrder() {
+        InputQueue queue = new InputQueue(4);
+        queue.reset(Directions.RIGHT);
+
+        // Virage rapide : deux touches dans le même tick sont gardées toutes les deux.
+        assertTrue(queue.offer(Directions.UP));
+        assertTrue(queue.offer(Directions.LEFT));
+        assertEquals(2, queue.size());
+
+        assertEquals(Directions.UP, queue.next(Directions.RIGHT));
+        assertEquals(Directions.LEFT, queue.next(Directions.UP));
+        assertEquals(Directions.LEFT, queue.next(Directions.LEFT));
+        assertEquals(2, queue.getAppliedCount());
+    }
+
+    @Test
+    void rejectsReversalsAndRepeatsAgainstTheLastQueuedDirection() {
+        InputQueue queue = new InputQueue(4);
+        queue.reset(Directions.RIGHT);
+
+        assertFalse(queue.offer(Directions.LEFT));
+        assertFalse(queue.offer(Directions.RIGHT));
+        assertTrue(queue.offer(Directions.DOWN));
+        assertFalse(queue.offer(Directions.UP));
+        assertFalse(queue.offer(Directions.DOWN));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void dropsQueuedReversalOfTheAppliedDirection() {
+        InputQueue queue = new InputQueue(4);
+        queue.reset(Directions.RIGHT);
+        queue.offer(Directions.UP);
+        queue.offer(Directions.LEFT);
+
+        // Un autre pilote a tourné vers le bas entre-temps : UP serait un demi-tour, LEFT reste valide.
+        assertEquals(Directions.LEFT, queue.next(Directions.DOWN));
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void fullQueueDropsNewDirections() {
+        InputQueue queue = new InputQueue(2);
+        queue.reset(Directions.RIGHT);
+
+        assertTrue(queue.offer(Directions.UP));
+        assertTrue(queue.offer(Directions.LEFT));
+        assertFalse(queue.offer(Directions.DOWN));
+        assertEquals(1, queue.getDroppedCount());
+
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertEquals(Directions.RIGHT, queue.next(Directions.RIGHT));
+    }
+}
@@ -0,0 +1,122 @@
+package org.diro.dirosnake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Compare la grille et son ensemble de cellules libres à un simple tableau de compteurs. */
+class OccupancyGridTest {
+
+    private static final int COLS = 7;
+    private static final int ROWS = 5;
+
+    @Test
+    void countsAndFreeSetFollowRandomOccupyAndRelease() {
+        OccupancyGrid grid = new OccupancyGrid(COLS, ROWS);
+        int[] expected = new int[COLS * ROWS];
+        Random random = new Random(42);
+
+        for (int step = 0; step < 10_000; step++) {
+            // Des cellules hors du plateau sont aussi essayées : elles doivent être ignorées.
+            int col = random.nextInt(COLS + 2) - 1;
+            int row = random.nextInt(ROWS + 2) - 1;
+            boolean inside = grid.contains(col, row);
+            if (random.nextInt(3) == 0) {
+                grid.release(col, row);
+                if (inside && expected[row * COLS + col] > 0) {
+                    expected[row * COLS + col]--;
+                }
+            } else {
+                grid.occupy(col, row);
+                if (inside) {
+                    expected[row * COLS + col]++;
+                }
+            }
+            if (step % 100 == 0) {
+                assertMatches(expected, grid, random);
+            }
+        }
+        assertMatches(expected, grid, random);
+
+        grid.clear();
+        assertEquals(COLS * ROWS, grid.getFreeCount());
+    }
+
+    @Test
+    void fullBoardHasNoFreeCell() {
+        OccupancyGrid grid = new OccupancyGrid(3, 2);
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 3; col++) {
+                grid.occupy(col, row);
+            }
+        }
+        assertEquals(0, grid.getFreeCount());
+        assertEquals(-1, grid.randomFreeCell(new Random(1)));
+
+        grid.release(2, 1);
+        assertEquals(5, grid.randomFreeCell(new Random(1)));
+    }
+
+    @Test
+    void excludedCellsAreNeverPickedAndStayFree() {
+        OccupancyGrid grid = new OccupancyGrid(3, 1);
+        grid.occupy(0, 0);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, grid.randomFreeCell(random, new int[] {2, -1}));
+        }
+        assertEquals(-1, grid.randomFreeCell(random, new int[] {1, 2}));
+        // Une cellule exclue mais occupée ne doit pas revenir dans l'ensemble des cellules libres.
+        assertEquals(-1, grid.randomFreeCell(random, new int[] {0, 1, 2}));
+        assertEquals(2, grid.getFreeCount());
+    }
+
+    @Test
+    void freeCellSetAddAndRemoveAreIdempotent() {
+        FreeCellSet set = new FreeCellSet(4);
+        set.remove(1);
+        set.remove(1);
+        set.remove(3);
+        assertEquals(2, set.size());
+        assertFalse(set.contains(1));
+        assertTrue(set.contains(0));
+
+        set.add(1);
+        set.add(1);
+        assertEquals(3, set.size());
+        assertTrue(set.contains(1));
+
+        set.remove(0);
+        set.remove(1);
+        set.remove(2);
+        assertTrue(set.isEmpty());
+        assertEquals(-1, set.pick(new Random(3)));
+    }
+
+    private static void assertMatches(int[] expected, OccupancyGrid grid, Random random) {
+        int free = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                int cell = row * COLS + col;
+                assertEquals(expected[cell], grid.count(col, row));
+                assertEquals(expected[cell] > 0, grid.isOccupied(col, row));
+                if (expected[cell] == 0) {
+                    free++;
+                }
+            }
+        }
+        assertEquals(free, grid.getFreeCount());
+
+        int picked = grid.randomFreeCell(random);
+        if (free == 0) {
+            assertEquals(-1, picked);
+        } else {
+            assertEquals(0, expected[picked]);
+        }
+    }
+}
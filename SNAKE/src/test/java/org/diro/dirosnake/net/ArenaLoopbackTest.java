@@ -0,0 +1,68 @@
+package org.diro.dirosnake.net;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.core.ArenaGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Un serveur et quelques clients en boucle locale : chaque miroir doit suivre l'arène sans désynchronisation. */
+class ArenaLoopbackTest {
+
+    private static final int CLIENTS = 4;
+    private static final int CHECKS = 5;
+
+    @Test
+    @Timeout(60)
+    void mirrorsStayInSyncWithTheServer() throws Exception {
+        ArenaGame arena = new ArenaGame(32, 24, CLIENTS + 2, 3, 7L);
+        arena.reset();
+
+        ExecutorService players = Executors.newFixedThreadPool(CLIENTS);
+        try (ArenaServer server = new ArenaServer(arena, 300.0)) {
+            server.start(0);
+
+            List<Future<ArenaClient>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                Random random = new Random(c);
+                futures.add(players.submit(() -> play(ArenaClient.connect("localhost", server.getPort()), random)));
+            }
+
+            Set<Integer> slots = new HashSet<>();
+            for (Future<ArenaClient> future : futures) {
+                ArenaClient client = future.get();
+                assertTrue(client.getCheckCount() >= CHECKS, "checks " + client.getCheckCount());
+                assertEquals(0, client.getDesyncCount());
+                assertTrue(slots.add(client.getSlot()), "slot " + client.getSlot() + " given twice");
+            }
+            assertTrue(server.getInputCount() > 0);
+        } finally {
+            players.shutdownNow();
+        }
+    }
+
+    /** Applique les trames et tourne au hasard jusqu'à avoir reçu assez de vérifications d'empreinte. */
+    private static ArenaClient play(ArenaClient client, Random random) throws IOException {
+        Directions[] directions = Directions.values();
+        try (client) {
+            while (client.getCheckCount() < CHECKS && client.receive()) {
+                if (random.nextInt(4) == 0) {
+                    client.send(directions[random.nextInt(directions.length)]);
+                }
+            }
+        }
+        return client;
+    }
+}
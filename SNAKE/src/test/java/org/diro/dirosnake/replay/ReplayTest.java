@@ -0,0 +1,111 @@
+package org.diro.dirosnake.replay;
+
+import org.diro.dirosnake.Directions;
+import org.diro.dirosnake.ai.GreedyPolicy;
+import org.diro.dirosnake.core.SnakeGame;
+import org.diro.dirosnake.core.SnakePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+
+    private static final int COLS = 12;
+    private static final int ROWS = 9;
+
+    @Test
+    void encodedGameDecodesAndReplaysToTheSameState() throws IOException {
+        for (long seed = 1; seed <= 20; seed++) {
+            SnakeGame game = new SnakeGame(COLS, ROWS, seed);
+            ReplayRecorder recorder = new ReplayRecorder();
+            play(game, recorder, seed, -1);
+
+            Replay replay = Replay.read(recorder.finish(game));
+            assertEquals(COLS, replay.getCols());
+            assertEquals(ROWS, replay.getRows());
+            assertEquals(seed, replay.getSeed());
+            assertEquals(game.getTicks(), replay.getFinalTicks());
+            assertEquals(game.getScore(), replay.getFinalScore());
+            assertEquals(game.getOutcome(), replay.getFinalOutcome());
+
+            ReplayPlayer player = new ReplayPlayer();
+            assertTrue(player.verify(replay), replay.toString());
+            assertEquals(game.getTicks(), player.getTickCount());
+        }
+    }
+
+    @Test
+    void longStraightRunsSurviveVarintEncoding() throws IOException {
+        // Plateau large : des écarts de plusieurs centaines de ticks tiennent sur plusieurs octets.
+        SnakeGame game = new SnakeGame(400, 3, 5L);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(400, 3, 5L, Directions.RIGHT);
+        game.reset(5L);
+        while (!game.isOver() && game.getTicks() < 260) {
+            game.tick();
+        }
+        recorder.record(game.getTicks(), Directions.DOWN);
+        game.setDirection(Directions.DOWN);
+        game.tick();
+
+        Replay replay = Replay.read(recorder.finish(game));
+        assertEquals(1, replay.getChangeCount());
+        assertTrue(new ReplayPlayer().verify(replay));
+    }
+
+    @Test
+    void missingDirectionChangeIsReportedAsDesync() throws IOException {
+        SnakeGame game = new SnakeGame(COLS, ROWS, 3L);
+        ReplayRecorder recorder = new ReplayRecorder();
+        play(game, recorder, 3L, 0);
+
+        ReplayPlayer player = new ReplayPlayer();
+        assertFalse(player.verify(Replay.read(recorder.finish(game))));
+        assertEquals(1, player.getFailedCount());
+    }
+
+    @Test
+    void alteredFinalStateIsReportedAsDesync() throws IOException {
+        SnakeGame game = new SnakeGame(COLS, ROWS, 4L);
+        ReplayRecorder recorder = new ReplayRecorder();
+        play(game, recorder, 4L, -1);
+
+        byte[] bytes = recorder.finish(game);
+        bytes[bytes.length - 1] ^= 1;
+        assertFalse(new ReplayPlayer().verify(Replay.read(bytes)));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() {
+        assertThrows(IOException.class, () -> Replay.read("NOPE".getBytes()));
+
+        SnakeGame game = new SnakeGame(COLS, ROWS, 6L);
+        ReplayRecorder recorder = new ReplayRecorder();
+        play(game, recorder, 6L, -1);
+        byte[] bytes = recorder.finish(game);
+        assertThrows(IOException.class, () -> Replay.read(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    /** Joue une partie gloutonne comme le lanceur, en omettant de l'enregistrement le changement "skipped". */
+    private static void play(SnakeGame game, ReplayRecorder recorder, long seed, int skipped) {
+        SnakePolicy policy = new GreedyPolicy();
+        game.reset(seed);
+        recorder.begin(game.getCols(), game.getRows(), seed, game.getDirection());
+
+        int changes = 0;
+        while (!game.isOver() && game.getTicks() < 5_000) {
+            Directions direction = policy.decide(game);
+            if (direction != game.getDirection() && changes++ != skipped) {
+                recorder.record(game.getTicks(), direction);
+            }
+            game.setDirection(direction);
+            game.tick();
+        }
+    }
+}
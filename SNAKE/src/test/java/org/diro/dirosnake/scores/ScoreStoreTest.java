@@ -0,0 +1,159 @@
+package org.diro.dirosnake.scores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Le magasin est comparé à une simple liste de parties, triée à chaque requête. */
+class ScoreStoreTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void topRankAndPercentileMatchBruteForce() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        Random random = new Random(11);
+
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            for (int i = 0; i < 600; i++) {
+                append(store, games, random.nextInt(60));
+                if (i == 250) {
+                    assertTrue(store.compact());
+                }
+            }
+            assertTrue(store.getTailSize() > 0);
+            assertMatches(games, store);
+        }
+
+        // Le classement compacté et la queue reconstruite à l'ouverture donnent les mêmes réponses.
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            assertMatches(games, store);
+        }
+    }
+
+    @Test
+    void compactionEmptiesTheTailWithoutChangingAnswers() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        Random random = new Random(12);
+
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            assertFalse(store.compact());
+            for (int i = 0; i < 200; i++) {
+                append(store, games, random.nextInt(20));
+            }
+            assertEquals(200, store.getTailSize());
+
+            assertTrue(store.compact());
+            assertEquals(0, store.getTailSize());
+            assertFalse(store.compact());
+            assertMatches(games, store);
+
+            for (int i = 0; i < 50; i++) {
+                append(store, games, random.nextInt(20));
+            }
+            assertTrue(store.compact());
+            assertMatches(games, store);
+            // Les générations précédentes du classement ne sont plus projetées par personne.
+            assertEquals(List.of("ranking-250.idx"), rankingFiles());
+        }
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            assertEquals(0, store.getTailSize());
+            assertMatches(games, store);
+        }
+    }
+
+    @Test
+    void reopensAfterTruncatedLogTail() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        Random random = new Random(13);
+
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            for (int i = 0; i < 40; i++) {
+                append(store, games, random.nextInt(30));
+            }
+            // Le classement couvre les 40 parties, dont la dernière sera perdue.
+            store.compact();
+        }
+
+        // Coupure au milieu du dernier enregistrement : l'index et le classement le couvrent déjà.
+        Path log = directory.resolve("games.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        games.remove(games.size() - 1);
+
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            assertEquals(List.of(), rankingFiles());
+            assertEquals(39, store.count());
+            assertMatches(games, store);
+            append(store, games, 1000);
+            assertMatches(games, store);
+        }
+
+        // Octets d'un enregistrement incomplet après le dernier indexé : ils sont coupés à l'ouverture.
+        Files.write(log, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        try (ScoreStore store = ScoreStore.open(directory)) {
+            assertEquals(40, store.count());
+            assertEquals(1000, store.get(39).getScore());
+            assertMatches(games, store);
+        }
+    }
+
+    private List<String> rankingFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.startsWith("ranking"))
+                    .sorted().toList();
+        }
+    }
+
+    private static void append(ScoreStore store, List<GameRecord> games, int score) throws IOException {
+        // La graine sert d'identifiant pour comparer les parties.
+        GameRecord record = new GameRecord(START + games.size() * 1000L, score, score + 1, score * 10L,
+                games.size(), "");
+        assertEquals(games.size(), store.append(record));
+        games.add(record);
+    }
+
+    private static void assertMatches(List<GameRecord> games, ScoreStore store) throws IOException {
+        assertEquals(games.size(), store.count());
+
+        // Meilleur score d'abord ; à égalité, la plus ancienne (la graine est la position d'arrivée).
+        List<GameRecord> ranked = new ArrayList<>(games);
+        ranked.sort(Comparator.comparingInt(GameRecord::getScore).reversed()
+                .thenComparingLong(GameRecord::getSeed));
+        for (int n : new int[] {0, 1, 10, games.size(), games.size() + 5}) {
+            List<GameRecord> top = store.top(n);
+            assertEquals(Math.min(n, games.size()), top.size());
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(ranked.get(i).getSeed(), top.get(i).getSeed());
+            }
+        }
+
+        int[] ascending = games.stream().mapToInt(GameRecord::getScore).sorted().toArray();
+        for (double p : new double[] {0, 0.01, 0.25, 0.5, 0.9, 0.99, 1}) {
+            int expected = ascending[Math.max(0, (int) Math.ceil(p * ascending.length) - 1)];
+            assertEquals(expected, store.percentile(p), "percentile " + p);
+        }
+        for (int score : new int[] {-1, 0, 5, 29, 1000, 2000}) {
+            long better = games.stream().filter(game -> game.getScore() > score).count();
+            assertEquals(better + 1, store.rank(score), "rank " + score);
+        }
+    }
+}